@@ -0,0 +1,54 @@
+// Public camp search (GET /api/camps and /api/camps/scroll) under a growing number of users.
+//
+//   k6 run -e CODE=<district access code> loadtest/camp-search.js
+//
+// Ramps up to VUS virtual users without think time, so the server, not the clients, sets the pace.
+// Run it once against the default (platform thread) mode and once with the virtual profile, and
+// compare http_reqs (req/s), http_req_duration p(95) and shed: requests answered 503 because no
+// database connection was free within spring.datasource.hikari.connection-timeout.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Rate } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const CODE = __ENV.CODE;
+const VUS = Number(__ENV.VUS || 400);
+const QUERIES = ['', 'sail', 'mountain hiking', 'music', 'ski', 'culture language', 'beach'];
+
+const shed = new Rate('shed');
+
+export const options = {
+    stages: [
+        { duration: '20s', target: VUS / 4 },
+        { duration: '20s', target: VUS },
+        { duration: __ENV.DURATION || '60s', target: VUS },
+        { duration: '10s', target: 0 },
+    ],
+    thresholds: {
+        // Anything but 200 or a 503 with Retry-After is a real failure
+        checks: ['rate>0.99'],
+    },
+};
+
+export function setup() {
+    if (!CODE) {
+        throw new Error('Set CODE to a district access code, e.g. -e CODE=a7f3x9k2z1');
+    }
+    const res = http.get(`${BASE_URL}/api/camps?code=${CODE}`);
+    if (res.status !== 200) {
+        throw new Error(`Camp search returned ${res.status}`);
+    }
+}
+
+export default function () {
+    const query = QUERIES[Math.floor(Math.random() * QUERIES.length)];
+    const params = `code=${CODE}&query=${encodeURIComponent(query)}`;
+    const res = Math.random() < 0.5
+        ? http.get(`${BASE_URL}/api/camps?${params}&page=${Math.floor(Math.random() * 3)}`, { tags: { name: 'page' } })
+        : http.get(`${BASE_URL}/api/camps/scroll?${params}`, { tags: { name: 'scroll' } });
+
+    shed.add(res.status === 503);
+    check(res, {
+        'ok or shed': (r) => r.status === 200 || (r.status === 503 && r.headers['Retry-After'] !== undefined),
+    });
+}
@@ -0,0 +1,50 @@
+// Download throughput of GET /api/files/{type}/{filename}.
+//
+//   k6 run -e FILE=/api/files/flyers/<name>.pdf loadtest/file-download.js
+//
+// MODE selects what the virtual users do:
+//   full        plain GETs of the whole file (sendfile on Tomcat with local storage)
+//   conditional every request revalidates with If-None-Match, like a browser with a cached copy (304)
+//   range       1 MB ranges at random offsets, like a PDF viewer
+// Run each mode against the same file and compare http_reqs (req/s) and data_received.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const FILE = __ENV.FILE;
+const MODE = __ENV.MODE || 'full';
+const RANGE_SIZE = 1024 * 1024;
+
+export const options = {
+    vus: Number(__ENV.VUS || 50),
+    duration: __ENV.DURATION || '30s',
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    if (!FILE) {
+        throw new Error('Set FILE to the URL path of an uploaded file, e.g. -e FILE=/api/files/flyers/<name>.pdf');
+    }
+    const res = http.get(BASE_URL + FILE);
+    if (res.status !== 200) {
+        throw new Error(`GET ${FILE} returned ${res.status}`);
+    }
+    return { etag: res.headers['Etag'], length: Number(res.headers['Content-Length'] || res.body.length) };
+}
+
+export default function (file) {
+    if (MODE === 'conditional') {
+        const res = http.get(BASE_URL + FILE, { headers: { 'If-None-Match': file.etag } });
+        check(res, { 'not modified': (r) => r.status === 304 });
+    } else if (MODE === 'range') {
+        const start = Math.floor(Math.random() * Math.max(1, file.length - RANGE_SIZE));
+        const end = Math.min(file.length, start + RANGE_SIZE) - 1;
+        const res = http.get(BASE_URL + FILE, { headers: { Range: `bytes=${start}-${end}` } });
+        check(res, { 'partial content': (r) => r.status === 206 });
+    } else {
+        const res = http.get(BASE_URL + FILE);
+        check(res, { 'ok': (r) => r.status === 200 });
+    }
+}
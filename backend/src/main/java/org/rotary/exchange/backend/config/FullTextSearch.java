@@ -0,0 +1,64 @@
+package org.rotary.exchange.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells camp search whether PostgreSQL full-text search can be used.
+ * The unaccent extension, the camp_unaccent function and the GIN index are created by
+ * migration V11__camp_template_full_text_search; this only checks on startup that they exist.
+ *
+ * If the database is not PostgreSQL or the migration has not been applied, full-text search
+ * stays unavailable and camp search falls back to the LIKE filter.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FullTextSearch implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${search.full-text.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean available = false;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            log.info("Full-text search disabled, camp search uses LIKE matching.");
+            return;
+        }
+
+        try {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            if (!"PostgreSQL".equalsIgnoreCase(database)) {
+                log.info("Full-text search requires PostgreSQL (found {}), camp search uses LIKE matching.", database);
+                return;
+            }
+
+            Boolean migrated = jdbcTemplate.queryForObject(
+                    "SELECT to_regprocedure('camp_unaccent(text)') IS NOT NULL", Boolean.class);
+            if (!Boolean.TRUE.equals(migrated)) {
+                log.warn("Full-text search function camp_unaccent is missing, camp search uses LIKE matching.");
+                return;
+            }
+
+            available = true;
+            log.info("Full-text search for camp templates is available.");
+        } catch (DataAccessException e) {
+            log.warn("Could not check full-text search, camp search uses LIKE matching: {}", e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
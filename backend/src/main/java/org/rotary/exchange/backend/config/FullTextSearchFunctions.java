@@ -0,0 +1,39 @@
+package org.rotary.exchange.backend.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the PostgreSQL full-text search expressions used by CampSpecifications
+ * as HQL/Criteria functions. Registered via META-INF/services.
+ *
+ * The document expression must stay identical to the one indexed by
+ * migration V11__camp_template_full_text_search, otherwise PostgreSQL will not use the GIN index.
+ */
+public class FullTextSearchFunctions implements FunctionContributor {
+
+    public static final String MATCH = "camp_fts_match";
+    public static final String RANK = "camp_fts_rank";
+
+    static final String DOCUMENT =
+            "to_tsvector('simple', camp_unaccent(coalesce(?1, '') || ' ' || coalesce(?2, '')))";
+    private static final String QUERY = "to_tsquery('simple', camp_unaccent(?3))";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Float> floatType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.FLOAT);
+
+        // camp_fts_match(name, description, tsquery)
+        functionContributions.getFunctionRegistry()
+                .registerPattern(MATCH, "(" + DOCUMENT + " @@ " + QUERY + ")", booleanType);
+
+        // camp_fts_rank(name, description, tsquery)
+        functionContributions.getFunctionRegistry()
+                .registerPattern(RANK, "ts_rank(" + DOCUMENT + ", " + QUERY + ")", floatType);
+    }
+}
@@ -1,15 +1,74 @@
 package org.rotary.exchange.backend.config;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Value("${storage.backend:local}")
+    private String storageBackend;
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Open session in view, as Spring Boot registers it, except for sign-in and registration.
+     * The view's session holds its database connection until the response is written, and these
+     * requests may wait for a password hashing thread (see BoundedPasswordEncoder) in between.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor)
+                .excludePathPatterns("/api/auth/login", "/api/auth/register");
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        if (!isLocalStorage()) {
+            return;
+        }
+        // Upload names are UUIDs or content digests, so cached copies never go stale.
+        // The resource handler also answers conditional (304) and Range (206) requests.
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+                .addResourceLocations("file:" + Paths.get(uploadDir).toAbsolutePath().normalize() + "/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .setEtagGenerator(resource -> {
+                    try {
+                        return Long.toHexString(resource.contentLength()) + "-" + Long.toHexString(resource.lastModified());
+                    } catch (IOException e) {
+                        return null;
+                    }
+                });
+    }
+
+    @Override
+    public void addViewControllers(ViewControllerRegistry registry) {
+        if (isLocalStorage()) {
+            return;
+        }
+        // Stored URLs keep their /uploads/ form; with remote storage FileController hands out the content
+        registry.addRedirectViewController("/uploads/{type}/{filename}", "/api/files/{type}/{filename}");
+    }
+
+    private boolean isLocalStorage() {
+        return "local".equals(storageBackend);
     }
 }
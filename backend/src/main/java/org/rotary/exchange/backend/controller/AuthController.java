@@ -50,13 +50,16 @@ public class AuthController {
             @ApiResponse(responseCode = "200", description = "Login successful",
                     content = @Content(schema = @Schema(implementation = JwtResponse.class))),
             @ApiResponse(responseCode = "401", description = "Invalid credentials"),
-            @ApiResponse(responseCode = "400", description = "Validation error")
+            @ApiResponse(responseCode = "400", description = "Validation error"),
+            @ApiResponse(responseCode = "429", description = "Too many failed attempts for this email or address, retry after the Retry-After delay"),
+            @ApiResponse(responseCode = "503", description = "Too many sign-ins at once, retry after the Retry-After delay")
     })
     @PostMapping("/login")
     public ResponseEntity<JwtResponse> login(
             @Valid @RequestBody LoginRequest loginRequest,
+            @Parameter(hidden = true) HttpServletRequest request,
             @Parameter(hidden = true) HttpServletResponse response) {
-        JwtResponse jwtResponse = authService.login(loginRequest);
+        JwtResponse jwtResponse = authService.login(loginRequest, request.getRemoteAddr());
         cookieUtil.addRefreshTokenCookie(response, jwtResponse.getRefreshToken());
         jwtResponse.setRefreshToken(null);
         return ResponseEntity.ok(jwtResponse);
@@ -68,7 +71,8 @@ public class AuthController {
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Registration successful"),
-            @ApiResponse(responseCode = "400", description = "Validation error or email already exists")
+            @ApiResponse(responseCode = "400", description = "Validation error or email already exists"),
+            @ApiResponse(responseCode = "503", description = "Too many sign-ins at once, retry after the Retry-After delay")
     })
     @PostMapping("/register")
     public ResponseEntity<ResponseMessage> register(@Valid @RequestBody RegisterRequest registerRequest) {
@@ -13,10 +13,8 @@ import lombok.RequiredArgsConstructor;
 import org.rotary.exchange.backend.dto.*;
 import org.rotary.exchange.backend.exception.ResourceNotFoundException;
 import org.rotary.exchange.backend.model.CampStatus;
-import org.rotary.exchange.backend.model.Coordinator;
-import org.rotary.exchange.backend.model.District;
-import org.rotary.exchange.backend.repository.DistrictRepository;
 import org.rotary.exchange.backend.security.service.UserPrinciple;
+import org.rotary.exchange.backend.service.AccessCodeResolver;
 import org.rotary.exchange.backend.service.CampManagementService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -36,7 +34,7 @@ import java.util.List;
 public class CampController {
 
     private final CampManagementService campService;
-    private final DistrictRepository districtRepository;
+    private final AccessCodeResolver accessCodeResolver;
 
     @Operation(
             summary = "Search camps for a district",
@@ -63,15 +61,46 @@ public class CampController {
             @PageableDefault(size = 12, sort = "dateStart") Pageable pageable) {
         
         // Validate and resolve the district from access code
-        District district = districtRepository.findByAccessCode(code)
-                .orElseThrow(() -> new ResourceNotFoundException("District", "accessCode", code));
+        Integer districtId = accessCodeResolver.resolveDistrictId(code);
         
         // Set the district ID in criteria for filtering
-        criteria.setDistrictId(district.getId());
+        criteria.setDistrictId(districtId);
         
         return ResponseEntity.ok(campService.getPublicCamps(criteria, pageable));
     }
 
+    @Operation(
+            summary = "Scroll camps for a district",
+            description = """
+                    Cursor-based variant of the district camp search for infinite scrolling.
+                    
+                    Results are ordered by start date. Pass the `nextCursor` of the previous response
+                    to get the next slice; no total count is computed. Relevance ordering
+                    (`sort=relevance`) is only available on the paged endpoint and is ignored here.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Slice of camps available for the district"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "404", description = "Invalid access code - district not found")
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<CampResponseDTO>> scrollPublicCamps(
+            @Parameter(description = "District access code (required)", required = true, example = "a7f3x9k2z1")
+            @RequestParam String code,
+            @Parameter(description = "Additional search filters")
+            CampSearchCriteria criteria,
+            @Parameter(description = "Cursor from the previous response, omit for the first slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size (max 100)", example = "12")
+            @RequestParam(defaultValue = "12") int size) {
+
+        Integer districtId = accessCodeResolver.resolveDistrictId(code);
+        criteria.setDistrictId(districtId);
+
+        return ResponseEntity.ok(campService.scrollPublicCamps(criteria, cursor, size));
+    }
+
     @Operation(
             summary = "Get camp details",
             description = """
@@ -92,12 +121,11 @@ public class CampController {
             @Parameter(description = "Camp ID", required = true)
             @PathVariable Integer id) {
         
-        // Validate the access code exists
-        District district = districtRepository.findByAccessCode(code)
-                .orElseThrow(() -> new ResourceNotFoundException("District", "accessCode", code));
+        // Validate the access code exists (cached lookup)
+        Integer districtId = accessCodeResolver.resolveDistrictId(code);
         
         // Get camp details (could add additional check that camp is available for this district)
-        return ResponseEntity.ok(campService.getCampById(id, district.getId()));
+        return ResponseEntity.ok(campService.getCampById(id, districtId));
     }
 
     @Operation(
@@ -119,6 +147,30 @@ public class CampController {
         return ResponseEntity.ok(campService.getCoordinatorCamps(criteria, pageable));
     }
 
+    @Operation(
+            summary = "Scroll my camps",
+            description = "Cursor-based variant of my camps, ordered by start date. No total count is computed; "
+                    + "sort=relevance is not supported and is ignored."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Slice of coordinator's camps"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/my-camps/scroll")
+    public ResponseEntity<CursorPage<CampResponseDTO>> scrollMyCamps(
+            @Parameter(hidden = true) Authentication authentication,
+            @Parameter(description = "Search criteria") CampSearchCriteria criteria,
+            @Parameter(description = "Cursor from the previous response, omit for the first slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size (max 100)", example = "10")
+            @RequestParam(defaultValue = "10") int size) {
+        UserPrinciple userPrinciple = (UserPrinciple) authentication.getPrincipal();
+        criteria.setCoordinatorId(userPrinciple.getId());
+        return ResponseEntity.ok(campService.scrollCoordinatorCamps(criteria, cursor, size));
+    }
+
     @Operation(
             summary = "Get camps for my district",
             description = """
@@ -142,14 +194,41 @@ public class CampController {
             @PageableDefault(size = 12, sort = "dateStart") Pageable pageable) {
         UserPrinciple userPrinciple = (UserPrinciple) authentication.getPrincipal();
         
-        // Get coordinator's district
-        Coordinator coordinator = campService.getCoordinatorWithDistrict(userPrinciple.getId());
-        if (coordinator.getDistrict() == null) {
+        // Coordinator's district, from the access token
+        if (userPrinciple.getDistrictId() == null) {
             throw new ResourceNotFoundException("District", "coordinatorId", userPrinciple.getId());
         }
         
-        District district = coordinator.getDistrict();
-        return ResponseEntity.ok(campService.getCampsForDistrict(district.getId(), district.getCode(), pageable));
+        return ResponseEntity.ok(campService.getCampsForDistrict(
+                userPrinciple.getDistrictId(), userPrinciple.getDistrictCode(), pageable));
+    }
+
+    @Operation(
+            summary = "Scroll camps for my district",
+            description = "Cursor-based variant of camps for my district, ordered by start date. No total count is computed."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Slice of camps for the district with local statuses"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "404", description = "Coordinator has no assigned district")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/district/scroll")
+    public ResponseEntity<CursorPage<CampWithDistrictStatusDTO>> scrollDistrictCamps(
+            @Parameter(hidden = true) Authentication authentication,
+            @Parameter(description = "Cursor from the previous response, omit for the first slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size (max 100)", example = "12")
+            @RequestParam(defaultValue = "12") int size) {
+        UserPrinciple userPrinciple = (UserPrinciple) authentication.getPrincipal();
+
+        if (userPrinciple.getDistrictId() == null) {
+            throw new ResourceNotFoundException("District", "coordinatorId", userPrinciple.getId());
+        }
+
+        return ResponseEntity.ok(campService.scrollCampsForDistrict(
+                userPrinciple.getDistrictId(), userPrinciple.getDistrictCode(), cursor, size));
     }
 
     @Operation(
@@ -18,6 +18,7 @@ import org.rotary.exchange.backend.model.Country;
 import org.rotary.exchange.backend.model.District;
 import org.rotary.exchange.backend.repository.CountryRepository;
 import org.rotary.exchange.backend.repository.DistrictRepository;
+import org.rotary.exchange.backend.service.ReferenceDataCache;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -32,6 +33,7 @@ public class CountryController {
 
     private final CountryRepository countryRepo;
     private final DistrictRepository districtRepo;
+    private final ReferenceDataCache referenceDataCache;
 
     @Operation(
             summary = "Get all countries",
@@ -97,7 +99,9 @@ public class CountryController {
         Country country = new Country();
         country.setName(request.getName());
         country.setPdfVisible(request.getPdfVisible() != null ? request.getPdfVisible() : true);
-        return ResponseEntity.ok(countryRepo.save(country));
+        Country saved = countryRepo.save(country);
+        referenceDataCache.evictCountries();
+        return ResponseEntity.ok(saved);
     }
 
     @Operation(
@@ -125,7 +129,9 @@ public class CountryController {
         if (request.getPdfVisible() != null) {
             country.setPdfVisible(request.getPdfVisible());
         }
-        return ResponseEntity.ok(countryRepo.save(country));
+        Country saved = countryRepo.save(country);
+        referenceDataCache.evictCountries();
+        return ResponseEntity.ok(saved);
     }
 
     @Operation(
@@ -154,6 +160,7 @@ public class CountryController {
         }
         
         countryRepo.delete(country);
+        referenceDataCache.evictCountries();
         return ResponseEntity.noContent().build();
     }
 
@@ -15,13 +15,15 @@ import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.rotary.exchange.backend.exception.ErrorResponse;
 import org.rotary.exchange.backend.exception.ResourceNotFoundException;
-import org.rotary.exchange.backend.model.Coordinator;
 import org.rotary.exchange.backend.model.Country;
 import org.rotary.exchange.backend.model.District;
 import org.rotary.exchange.backend.repository.CoordinatorRepository;
 import org.rotary.exchange.backend.repository.CountryRepository;
 import org.rotary.exchange.backend.repository.DistrictRepository;
+import org.rotary.exchange.backend.security.jwt.StaleClaimsRegistry;
 import org.rotary.exchange.backend.security.service.UserPrinciple;
+import org.rotary.exchange.backend.service.AccessCodeResolver;
+import org.rotary.exchange.backend.service.ReferenceDataCache;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -39,6 +41,9 @@ public class DistrictController {
     private final DistrictRepository districtRepo;
     private final CoordinatorRepository coordinatorRepo;
     private final CountryRepository countryRepo;
+    private final AccessCodeResolver accessCodeResolver;
+    private final StaleClaimsRegistry staleClaimsRegistry;
+    private final ReferenceDataCache referenceDataCache;
 
     @Operation(
             summary = "Get all districts",
@@ -94,8 +99,11 @@ public class DistrictController {
         district.setCode(request.getCode());
         district.setCountry(country);
         // accessCode will be auto-generated by @PrePersist
+        District saved = districtRepo.save(district);
+        accessCodeResolver.invalidate(saved);
+        referenceDataCache.evictDistricts();
         
-        return ResponseEntity.ok(districtRepo.save(district));
+        return ResponseEntity.ok(saved);
     }
 
     @Operation(
@@ -129,10 +137,18 @@ public class DistrictController {
                     throw new IllegalArgumentException("District with code '" + request.getCode() + "' already exists");
                 });
         
+        boolean codeChanged = !district.getCode().equals(request.getCode());
         district.setCode(request.getCode());
         district.setCountry(country);
+        District saved = districtRepo.save(district);
+        accessCodeResolver.invalidate(saved);
+        referenceDataCache.evictDistricts();
+        if (codeChanged) {
+            // The code is part of the district claim in access tokens
+            staleClaimsRegistry.invalidateDistrict(id);
+        }
         
-        return ResponseEntity.ok(districtRepo.save(district));
+        return ResponseEntity.ok(saved);
     }
 
     @Operation(
@@ -161,6 +177,8 @@ public class DistrictController {
         }
         
         districtRepo.delete(district);
+        accessCodeResolver.invalidate(district);
+        referenceDataCache.evictDistricts();
         return ResponseEntity.noContent().build();
     }
 
@@ -214,6 +232,9 @@ public class DistrictController {
         district.setAccessCode(null);
         district.generateAccessCodeIfMissing();
         districtRepo.save(district);
+        // Drops the old code (students' links stop working immediately) and any negative entry for the new one
+        accessCodeResolver.invalidate(district);
+        referenceDataCache.evictDistricts();
         
         return ResponseEntity.ok(Map.of(
                 "districtId", district.getId().toString(),
@@ -245,14 +266,13 @@ public class DistrictController {
             @Parameter(hidden = true) Authentication authentication) {
         UserPrinciple userPrinciple = (UserPrinciple) authentication.getPrincipal();
         
-        Coordinator coordinator = coordinatorRepo.findById(userPrinciple.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Coordinator", "id", userPrinciple.getId()));
-        
-        if (coordinator.getDistrict() == null) {
+        // The district comes from the access token, only its details are loaded
+        if (userPrinciple.getDistrictId() == null) {
             throw new ResourceNotFoundException("District", "coordinatorId", userPrinciple.getId());
         }
         
-        District district = coordinator.getDistrict();
+        District district = districtRepo.findById(userPrinciple.getDistrictId())
+                .orElseThrow(() -> new ResourceNotFoundException("District", "coordinatorId", userPrinciple.getId()));
         return ResponseEntity.ok(Map.of(
                 "districtId", district.getId().toString(),
                 "districtCode", district.getCode(),
@@ -8,13 +8,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.rotary.exchange.backend.dto.BatchStatusUpdateRequest;
+import org.rotary.exchange.backend.dto.BatchStatusUpdateResult;
 import org.rotary.exchange.backend.dto.StatusUpdateDTO;
 import org.rotary.exchange.backend.exception.AccessDeniedException;
 import org.rotary.exchange.backend.exception.ErrorResponse;
 import org.rotary.exchange.backend.model.CampDistrictStatus;
-import org.rotary.exchange.backend.model.Coordinator;
-import org.rotary.exchange.backend.repository.CoordinatorRepository;
 import org.rotary.exchange.backend.security.service.UserPrinciple;
 import org.rotary.exchange.backend.service.DistrictStatusService;
 import org.springframework.http.ResponseEntity;
@@ -29,7 +30,6 @@ import org.springframework.web.bind.annotation.*;
 public class DistrictStatusController {
 
     private final DistrictStatusService statusService;
-    private final CoordinatorRepository coordinatorRepository;
 
     @Operation(
             summary = "Get camp status for a district",
@@ -82,15 +82,52 @@ public class DistrictStatusController {
         UserPrinciple user = (UserPrinciple) authentication.getPrincipal();
         boolean isAdmin = authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN"));
         
+        if (!isAdmin && !districtId.equals(user.getDistrictId())) {
+            throw new AccessDeniedException("You can only update status for your own district");
+        }
+        
+        return ResponseEntity.ok(statusService.updateLocalStatusManual(campId, districtId, dto.getStatus()));
+    }
+
+    @Operation(
+            summary = "Update camp statuses in bulk",
+            description = """
+                    Updates the local registration status for many (camp, district) pairs in one request,
+                    e.g. when opening or closing a whole season.
+                    
+                    All valid items are applied in a single transaction. Invalid items (unknown camp or
+                    district, status incompatible with the global status, duplicates) are rejected
+                    individually and reported in the per-item results.
+                    
+                    **Authorization:**
+                    - Coordinators can only update status for their own assigned district
+                    - Admins can update status for any district
+                    """,
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Empty or too large batch"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Coordinator without an assigned district")
+    })
+    @PatchMapping("/batch")
+    public ResponseEntity<BatchStatusUpdateResult> updateLocalStatuses(
+            @Parameter(hidden = true) Authentication authentication,
+            @Valid @RequestBody BatchStatusUpdateRequest request) {
+
+        UserPrinciple user = (UserPrinciple) authentication.getPrincipal();
+        boolean isAdmin = authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+        // Coordinators are limited to their own district, taken from the access token
+        Integer onlyDistrictId = null;
         if (!isAdmin) {
-            Coordinator coordinator = coordinatorRepository.findById(user.getId())
-                    .orElseThrow(() -> new AccessDeniedException("Coordinator not found"));
-            
-            if (coordinator.getDistrict() == null || !coordinator.getDistrict().getId().equals(districtId)) {
+            if (user.getDistrictId() == null) {
                 throw new AccessDeniedException("You can only update status for your own district");
             }
+            onlyDistrictId = user.getDistrictId();
         }
-        
-        return ResponseEntity.ok(statusService.updateLocalStatusManual(campId, districtId, dto.getStatus()));
+
+        return ResponseEntity.ok(statusService.updateLocalStatusesBatch(request.getItems(), onlyDistrictId));
     }
 }
\ No newline at end of file
@@ -8,21 +8,33 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.rotary.exchange.backend.dto.FileUploadResponse;
 import org.rotary.exchange.backend.exception.ErrorResponse;
+import org.rotary.exchange.backend.service.BlobStore;
 import org.rotary.exchange.backend.service.FileStorageService;
+import org.rotary.exchange.backend.service.ImageVariantService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/files")
@@ -30,11 +42,23 @@ import java.nio.file.Path;
 @Tag(name = "Files", description = "File upload and download operations for images and PDF flyers")
 public class FileController {
 
+    // Request attributes of Tomcat's sendfile support (see org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
+    private final BlobStore blobStore;
+
+    @Value("${storage.presign-ttl-seconds:300}")
+    private long presignTtlSeconds;
 
     @Operation(
             summary = "Upload an image",
-            description = "Uploads an image file for use in camp templates or coordinator profiles. Accepts JPEG, PNG, GIF, and WebP formats. Max size: 5MB.",
+            description = "Uploads an image file for use in camp templates or coordinator profiles. Accepts JPEG, PNG, GIF, and WebP formats, detected from the file content. Max size: 10MB. "
+                    + "The part is received completely before it is validated; /images/stream rejects invalid files earlier.",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses({
@@ -55,7 +79,8 @@ public class FileController {
 
     @Operation(
             summary = "Upload a PDF flyer",
-            description = "Uploads a PDF flyer document for camp information. Max size: 10MB.",
+            description = "Uploads a PDF flyer document for camp information. Max size: 10MB. "
+                    + "The part is received completely before it is validated; /flyers/stream rejects invalid files earlier.",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses({
@@ -74,6 +99,52 @@ public class FileController {
         return ResponseEntity.ok(new FileUploadResponse(fileUrl, "Flyer uploaded successfully"));
     }
 
+    @Operation(
+            summary = "Upload an image as a raw request body",
+            description = """
+                    Streaming alternative to the multipart upload: the request body is the image itself and is written
+                    to disk as it arrives. The format is detected from the content (JPEG, PNG, GIF or WebP), and requests
+                    whose Content-Length exceeds the limit are rejected before the body is read. Max size: 10MB.
+                    """,
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Image uploaded successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid file type or size",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Not authorized - requires COORDINATOR or ADMIN role")
+    })
+    @PostMapping(value = "/images/stream", consumes = MediaType.ALL_VALUE)
+    @PreAuthorize("hasRole('COORDINATOR') or hasRole('ADMIN')")
+    public ResponseEntity<FileUploadResponse> streamImage(HttpServletRequest request) throws IOException {
+        String fileUrl = fileStorageService.uploadImage(request.getInputStream(), request.getContentLengthLong());
+        return ResponseEntity.ok(new FileUploadResponse(fileUrl, "Image uploaded successfully"));
+    }
+
+    @Operation(
+            summary = "Upload a PDF flyer as a raw request body",
+            description = """
+                    Streaming alternative to the multipart upload: the request body is the PDF itself and is written
+                    to disk as it arrives. Requests whose Content-Length exceeds the limit are rejected before the body
+                    is read. Max size: 10MB.
+                    """,
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Flyer uploaded successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid file type or size",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Not authorized - requires COORDINATOR or ADMIN role")
+    })
+    @PostMapping(value = "/flyers/stream", consumes = MediaType.ALL_VALUE)
+    @PreAuthorize("hasRole('COORDINATOR') or hasRole('ADMIN')")
+    public ResponseEntity<FileUploadResponse> streamFlyer(HttpServletRequest request) throws IOException {
+        String fileUrl = fileStorageService.uploadFlyer(request.getInputStream(), request.getContentLengthLong());
+        return ResponseEntity.ok(new FileUploadResponse(fileUrl, "Flyer uploaded successfully"));
+    }
+
     @Operation(
             summary = "Delete a file",
             description = "Permanently deletes a file from the server. Only admins can delete files.",
@@ -97,11 +168,21 @@ public class FileController {
 
     @Operation(
             summary = "Serve a file",
-            description = "Retrieves and serves a file (image or PDF) by its type and filename. Public endpoint for viewing camp images and flyers."
+            description = """
+                    Retrieves and serves a file (image or PDF) by its type and filename. Public endpoint for viewing camp images and flyers.
+                    
+                    Supports conditional requests (ETag / Last-Modified, answered with 304) and byte ranges
+                    (answered with 206) for large PDFs. Stored filenames never change content, so they are
+                    served with a long-lived immutable Cache-Control. With S3 storage the response is a redirect
+                    to a short-lived presigned URL instead.
+                    """
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "File served successfully",
                     content = @Content(mediaType = "application/octet-stream")),
+            @ApiResponse(responseCode = "206", description = "Requested byte range served"),
+            @ApiResponse(responseCode = "302", description = "Redirect to a presigned storage URL (S3 storage)"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the cached copy"),
             @ApiResponse(responseCode = "400", description = "Invalid request"),
             @ApiResponse(responseCode = "404", description = "File not found")
     })
@@ -110,25 +191,100 @@ public class FileController {
             @Parameter(description = "File type (images or flyers)", required = true, example = "images")
             @PathVariable String type,
             @Parameter(description = "Filename with extension", required = true, example = "abc123.jpg")
-            @PathVariable String filename) {
-        try {
-            Path filePath = fileStorageService.getFilePath(type + "/" + filename);
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (!resource.exists() || !resource.isReadable()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            String contentType = determineContentType(filename);
-            
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                            "inline; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
-        } catch (MalformedURLException e) {
-            return ResponseEntity.badRequest().build();
+            @PathVariable String filename,
+            @Parameter(hidden = true) ServletWebRequest webRequest) throws IOException {
+        return serve(fileStorageService.toKey(type + "/" + filename), webRequest);
+    }
+
+    @Operation(
+            summary = "Serve a resized image",
+            description = """
+                    Serves an uploaded image scaled to a fixed width: thumb (320px), card (640px) or full (1280px).
+                    Variants are generated on first request and cached in storage; images that are already narrower
+                    or cannot be decoded on the server (e.g. WebP) are served unchanged.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Image served successfully",
+                    content = @Content(mediaType = "image/jpeg")),
+            @ApiResponse(responseCode = "304", description = "Not modified since the cached copy"),
+            @ApiResponse(responseCode = "400", description = "Unknown variant",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Image not found"),
+            @ApiResponse(responseCode = "503", description = "Too many images being resized, retry after the Retry-After delay")
+    })
+    @GetMapping("/variants/{variant}/{filename:.+}")
+    public ResponseEntity<Resource> serveImageVariant(
+            @Parameter(description = "Variant name (thumb, card or full)", required = true, example = "card")
+            @PathVariable String variant,
+            @Parameter(description = "Filename of the uploaded image", required = true, example = "abc123.jpg")
+            @PathVariable String filename,
+            @Parameter(hidden = true) ServletWebRequest webRequest) throws IOException {
+        Optional<String> variantKey = imageVariantService.resolve(
+                ImageVariantService.Variant.fromPathName(variant), filename);
+        if (variantKey.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return serve(variantKey.get(), webRequest);
+    }
+
+    private ResponseEntity<Resource> serve(String key, ServletWebRequest webRequest) throws IOException {
+        String filename = key.substring(key.lastIndexOf('/') + 1);
+
+        // Remote stores: send the client to the bucket, the content never passes through here.
+        // The redirect may be cached for half the URL's lifetime, so a cached one is still valid.
+        Duration presignValidity = Duration.ofSeconds(presignTtlSeconds);
+        Optional<URI> presigned = blobStore.presignedGet(key, presignValidity);
+        if (presigned.isPresent()) {
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(presigned.get())
+                    .cacheControl(CacheControl.maxAge(presignValidity.dividedBy(2)).cachePrivate())
+                    .build();
+        }
+
+        Optional<BlobStore.BlobInfo> info = blobStore.stat(key);
+        if (info.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        long length = info.get().size();
+        long lastModified = info.get().lastModified();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        // 304 without touching the file content
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        CacheControl cacheControl = FileStorageService.isImmutableName(filename)
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(determineContentType(filename)))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl);
+
+        Optional<Path> localFile = blobStore.localPath(key);
+        if (localFile.isEmpty()) {
+            return response.contentLength(length).body(new InputStreamResource(blobStore.get(key)));
+        }
+        Path filePath = localFile.get();
+        response.header(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // Full responses: let Tomcat send the file with sendfile (zero-copy) after the headers
+        HttpServletRequest request = webRequest.getRequest();
+        if ("GET".equals(request.getMethod()) && request.getHeader(HttpHeaders.RANGE) == null
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, filePath.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return response.contentLength(length).build();
+        }
+
+        // Range requests (206) are cut from the resource by Spring MVC
+        return response.body(new FileSystemResource(filePath));
     }
 
     private String determineContentType(String filename) {
@@ -0,0 +1,36 @@
+package org.rotary.exchange.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.rotary.exchange.backend.model.CampStatus;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request object for updating many camp district statuses at once")
+public class BatchStatusUpdateRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 500, message = "At most 500 items per batch")
+    @Schema(description = "Status changes to apply", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "New local status for one camp in one district")
+    public static class Item {
+        @Schema(description = "Camp instance ID", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+        private Integer campId;
+
+        @Schema(description = "District ID", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+        private Integer districtId;
+
+        @Schema(description = "New camp status", example = "OPEN", requiredMode = Schema.RequiredMode.REQUIRED)
+        private CampStatus status;
+    }
+}
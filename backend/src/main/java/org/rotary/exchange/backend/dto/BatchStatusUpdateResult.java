@@ -0,0 +1,46 @@
+package org.rotary.exchange.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.rotary.exchange.backend.model.CampStatus;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a batch status update, one result per requested item in request order")
+public class BatchStatusUpdateResult {
+
+    @Schema(description = "Number of items applied", example = "42")
+    private int updated;
+
+    @Schema(description = "Number of items rejected", example = "1")
+    private int failed;
+
+    @Schema(description = "Per-item results")
+    private List<ItemResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Result for one (camp, district) item")
+    public static class ItemResult {
+        @Schema(description = "Camp instance ID", example = "1")
+        private Integer campId;
+
+        @Schema(description = "District ID", example = "1")
+        private Integer districtId;
+
+        @Schema(description = "Requested status", example = "OPEN")
+        private CampStatus status;
+
+        @Schema(description = "Whether the status was applied", example = "true")
+        private boolean success;
+
+        @Schema(description = "Reason the item was rejected", example = "Cannot set status OPEN because Global Status is CLOSED")
+        private String error;
+    }
+}
@@ -0,0 +1,39 @@
+package org.rotary.exchange.backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a (dateStart, id) ordered camp listing, used for keyset pagination.
+ * Clients receive it as an opaque token and send it back unchanged.
+ */
+public record CampCursor(LocalDate dateStart, Integer id) {
+
+    public static CampCursor after(CampResponseDTO camp) {
+        return new CampCursor(camp.getDateStart(), camp.getId());
+    }
+
+    public String encode() {
+        String raw = dateStart + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null for an empty token (first page)
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static CampCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            return new CampCursor(LocalDate.parse(parts[0]), Integer.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -26,6 +26,15 @@ public class CampResponseDTO {
     @Schema(description = "URL to camp image", example = "/api/files/images/camp123.jpg")
     private String imageUrl;
     
+    // Variant URLs are filled in by CampManagementService
+    @Schema(description = "URL to a 320px wide copy of the camp image, for lists",
+            example = "/api/files/variants/thumb/camp123.jpg")
+    private String thumbnailUrl;
+
+    @Schema(description = "URL to a 640px wide copy of the camp image, for cards",
+            example = "/api/files/variants/card/camp123.jpg")
+    private String cardImageUrl;
+
     @Schema(description = "URL to camp flyer PDF", example = "/api/files/flyers/camp123.pdf")
     private String flyerPdfUrl;
     
@@ -86,4 +95,29 @@ public class CampResponseDTO {
             // NOTICE: We do NOT map passwordHash here. Safe!
         }
     }
-}
\ No newline at end of file
+
+    // Flat constructor for query projections (columns selected directly, no entities loaded)
+    public CampResponseDTO(Integer id, Integer edition, String name, String description, String imageUrl,
+                           String flyerPdfUrl, Integer ageMin, Integer ageMax, LocalDate dateStart, LocalDate dateEnd,
+                           Integer price, CampStatus globalStatus, Integer limitTotal,
+                           Integer coordinatorId, String coordinatorFirstName, String coordinatorLastName) {
+        this.id = id;
+        this.edition = edition;
+        this.name = name;
+        this.description = description;
+        this.imageUrl = imageUrl;
+        this.flyerPdfUrl = flyerPdfUrl;
+        this.ageMin = ageMin;
+        this.ageMax = ageMax;
+        this.dateStart = dateStart;
+        this.dateEnd = dateEnd;
+        this.price = price;
+        this.globalStatus = globalStatus;
+        this.limitTotal = limitTotal;
+
+        if (coordinatorId != null) {
+            this.coordinatorId = coordinatorId;
+            this.coordinatorName = coordinatorFirstName + " " + coordinatorLastName;
+        }
+    }
+}
@@ -30,4 +30,7 @@ public class CampSearchCriteria {
     
     @Schema(description = "District ID resolved from access code (internal use)", hidden = true)
     private Integer districtId;
+
+    @Schema(description = "Order full-text matches by relevance, set from sort=relevance (internal use)", hidden = true)
+    private boolean sortByRelevance;
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import org.rotary.exchange.backend.model.CampDistrictStatus;
 import org.rotary.exchange.backend.model.CampInstance;
 import org.rotary.exchange.backend.model.CampStatus;
 
+import java.time.LocalDate;
+
 /**
  * Extended camp response that includes the local status for a specific district.
  * Used for coordinator views where they need to see their district's status.
@@ -40,4 +42,18 @@ public class CampWithDistrictStatusDTO extends CampResponseDTO {
         this.districtCode = districtCode;
         this.localStatus = localStatus;
     }
+
+    /**
+     * Flat constructor for query projections. A camp without a status row for the
+     * district falls back to its global status. District id/code are set by the caller.
+     */
+    public CampWithDistrictStatusDTO(Integer id, Integer edition, String name, String description, String imageUrl,
+                                     String flyerPdfUrl, Integer ageMin, Integer ageMax, LocalDate dateStart, LocalDate dateEnd,
+                                     Integer price, CampStatus globalStatus, Integer limitTotal,
+                                     Integer coordinatorId, String coordinatorFirstName, String coordinatorLastName,
+                                     CampStatus localStatus) {
+        super(id, edition, name, description, imageUrl, flyerPdfUrl, ageMin, ageMax, dateStart, dateEnd,
+                price, globalStatus, limitTotal, coordinatorId, coordinatorFirstName, coordinatorLastName);
+        this.localStatus = localStatus != null ? localStatus : globalStatus;
+    }
 }
@@ -0,0 +1,23 @@
+package org.rotary.exchange.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One slice of a cursor-paginated listing (no total count)")
+public class CursorPage<T> {
+    @Schema(description = "Items in this slice")
+    private List<T> content;
+
+    @Schema(description = "Opaque token for the next slice, null when there are no more items", example = "MjAyNS0wNy0wMXw0Mg")
+    private String nextCursor;
+
+    @Schema(description = "Whether another slice follows", example = "true")
+    private boolean hasNext;
+}
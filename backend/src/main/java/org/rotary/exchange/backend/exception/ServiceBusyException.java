@@ -0,0 +1,18 @@
+package org.rotary.exchange.backend.exception;
+
+/**
+ * A bounded resource is saturated; the client should retry after {@link #getRetryAfterSeconds()}.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package org.rotary.exchange.backend.exception;
+
+/**
+ * The client exceeded a rate limit; it may retry after {@link #getRetryAfterSeconds()}.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,12 +1,17 @@
 package org.rotary.exchange.backend.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 
 @Entity
 @Data
 @Table(uniqueConstraints = {
         @UniqueConstraint(columnNames = {"camp_instance_id", "district_id"})
+}, indexes = {
+        // Student search: "camps available in district X" is answered from this index alone
+        @Index(name = "idx_cds_district_available", columnList = "district_id, available, camp_instance_id")
 })
 public class CampDistrictStatus {
 
@@ -24,4 +29,16 @@ public class CampDistrictStatus {
 
     @Enumerated(EnumType.STRING)
     private CampStatus localStatus;
+
+    /**
+     * Materialized {@code localStatus.isAvailable()}, kept in sync by {@link #setLocalStatus}.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(nullable = false)
+    private boolean available;
+
+    public void setLocalStatus(CampStatus localStatus) {
+        this.localStatus = localStatus;
+        this.available = localStatus != null && localStatus.isAvailable();
+    }
 }
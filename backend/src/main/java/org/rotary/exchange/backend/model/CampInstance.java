@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_camp_instance_date_start_id", columnList = "dateStart, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
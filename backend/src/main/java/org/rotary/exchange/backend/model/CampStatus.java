@@ -5,5 +5,12 @@ public enum CampStatus {
     ONLY_MALE,
     ONLY_FEMALE,
     CLOSED,
-    ARCHIVED
+    ARCHIVED;
+
+    /**
+     * Whether students may see and apply to a camp in this status.
+     */
+    public boolean isAvailable() {
+        return this == OPEN || this == ONLY_MALE || this == ONLY_FEMALE;
+    }
 }
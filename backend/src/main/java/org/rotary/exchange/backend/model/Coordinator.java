@@ -3,6 +3,7 @@ package org.rotary.exchange.backend.model;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -43,6 +44,12 @@ public class Coordinator {
     )
     private Set<Role> roles = new HashSet<>();
 
+    // Version of the claims in this coordinator's access tokens, see StaleClaimsRegistry
+    @Column(nullable = false)
+    private int claimsVersion;
+
+    private Instant claimsChangedAt;
+
     // Constructor for registration
     public Coordinator(String email, String passwordHash) {
         this.email = email;
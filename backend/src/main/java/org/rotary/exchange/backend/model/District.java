@@ -2,10 +2,14 @@ package org.rotary.exchange.backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.security.SecureRandom;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "district")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
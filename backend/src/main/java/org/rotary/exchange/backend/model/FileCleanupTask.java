@@ -0,0 +1,49 @@
+package org.rotary.exchange.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.rotary.exchange.backend.service.FileCleanupService;
+
+import java.time.Instant;
+
+/**
+ * A replaced or orphaned upload waiting to be deleted by the cleanup worker.
+ * Rows are written in the same transaction as the change that released the file,
+ * so a rollback never deletes a file that is still referenced and a crash after
+ * commit never loses the cleanup.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_file_cleanup_task_due", columnList = "nextAttemptAt"),
+        @Index(name = "idx_file_cleanup_task_url", columnList = "url")
+})
+public class FileCleanupTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String url;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private FileCleanupService.FileType fileType;
+
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    public FileCleanupTask(String url, FileCleanupService.FileType fileType) {
+        this.url = url;
+        this.fileType = fileType;
+        this.nextAttemptAt = Instant.now();
+    }
+}
@@ -8,7 +8,13 @@ import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 
+/**
+ * One login session. Refreshing rotates the token in place: the row gets the new token's hash
+ * and remembers the previous one, so the session (token family) is a single row and a replayed
+ * old token can be recognised. The expiry is set at login and never extended.
+ */
 @Entity
+@Table(indexes = @Index(name = "idx_refresh_token_expiry_date", columnList = "expiryDate"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,7 +28,19 @@ public class RefreshToken {
     @JoinColumn(name = "coordinator_id", nullable = false)
     private Coordinator coordinator;
 
-    @Column(nullable = false, unique = true)
+    @Schema(description = "SHA-256 of the token; the token itself is only known to the client")
+    @Column(name = "token_hash", nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
+
+    @Schema(description = "SHA-256 of the token this one replaced, to detect reuse of a rotated token")
+    @Column(name = "previous_token_hash", length = 32)
+    private byte[] previousTokenHash;
+
+    @Schema(description = "When the token was last rotated")
+    private Instant rotatedAt;
+
+    // Plain token, set only on the instance created for the client
+    @Transient
     private String token;
 
     @Column(nullable = false)
@@ -4,12 +4,17 @@ package org.rotary.exchange.backend.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 import org.hibernate.annotations.NaturalId;
 
+// Roles are seeded once and never modified; @Immutable lets Hibernate enforce what READ_ONLY caching assumes
 @Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "role")
 @Getter
-@Setter
 @NoArgsConstructor
 public class Role {
 
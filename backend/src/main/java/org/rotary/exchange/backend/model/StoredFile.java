@@ -0,0 +1,43 @@
+package org.rotary.exchange.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Registry entry for an uploaded file with the number of entities referencing its URL
+ * (template images and flyers, coordinator profile pictures).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+public class StoredFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true)
+    private String url;
+
+    private int refCount = 0;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Hex SHA-256 of the content, set for files stored in content-addressed mode
+    @Column(length = 64)
+    private String contentHash;
+
+    // Last time this file was returned for an upload (content-addressed files are reused)
+    private Instant lastUploadedAt;
+
+    public StoredFile(String url, int refCount) {
+        this.url = url;
+        this.refCount = refCount;
+        this.createdAt = Instant.now();
+        this.lastUploadedAt = this.createdAt;
+    }
+}
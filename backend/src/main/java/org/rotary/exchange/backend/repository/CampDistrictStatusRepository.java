@@ -1,17 +1,44 @@
 package org.rotary.exchange.backend.repository;
 
 import org.rotary.exchange.backend.model.CampDistrictStatus;
+import org.rotary.exchange.backend.model.CampStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CampDistrictStatusRepository extends JpaRepository<CampDistrictStatus, Integer> {
+public interface CampDistrictStatusRepository extends JpaRepository<CampDistrictStatus, Integer>,
+        CampDistrictStatusRepositoryCustom {
     // Find specific status logic
     Optional<CampDistrictStatus> findByCampInstanceIdAndDistrictId(Integer campInstanceId, Integer districtId);
 
     // Find all statuses for a specific camp (for global cascading)
     List<CampDistrictStatus> findByCampInstanceId(Integer campInstanceId);
+
+    // Student access check, answered from idx_cds_district_available
+    boolean existsByCampInstanceIdAndDistrictIdAndAvailableTrue(Integer campInstanceId, Integer districtId);
+
+    // Existing status rows for a batch of (camp, district) pairs, without loading the entities
+    @Query("SELECT s.id AS id, s.campInstance.id AS campId, s.district.id AS districtId FROM CampDistrictStatus s " +
+            "WHERE s.campInstance.id IN :campIds AND s.district.id IN :districtIds")
+    List<StatusKeyView> findKeys(@Param("campIds") Collection<Integer> campIds,
+                                 @Param("districtIds") Collection<Integer> districtIds);
+
+    @Modifying
+    @Query("UPDATE CampDistrictStatus s SET s.localStatus = :status, s.available = :available WHERE s.id IN :ids")
+    int updateLocalStatus(@Param("ids") Collection<Integer> ids,
+                          @Param("status") CampStatus status,
+                          @Param("available") boolean available);
+
+    interface StatusKeyView {
+        Integer getId();
+        Integer getCampId();
+        Integer getDistrictId();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package org.rotary.exchange.backend.repository;
+
+import org.rotary.exchange.backend.model.CampStatus;
+
+import java.util.Map;
+
+/**
+ * Set-based writes on CampDistrictStatus that Spring Data cannot derive.
+ */
+public interface CampDistrictStatusRepositoryCustom {
+
+    /**
+     * Moves every district status of a camp to a new local status in one UPDATE statement.
+     * Rows whose status is not a key of {@code transitions} (and is not null) are left untouched.
+     * The {@code available} flag is updated together with the status.
+     *
+     * Like any bulk update this bypasses the persistence context: CampDistrictStatus
+     * entities already loaded in the current session are not refreshed.
+     *
+     * @param transitions current local status -> new local status, for the statuses that change
+     * @param nullTarget  new local status for rows without a local status
+     * @return number of rows changed
+     */
+    int applyStatusTransitions(Integer campId, Map<CampStatus, CampStatus> transitions, CampStatus nullTarget);
+}
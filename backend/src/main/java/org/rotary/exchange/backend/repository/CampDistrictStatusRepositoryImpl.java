@@ -0,0 +1,59 @@
+package org.rotary.exchange.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.rotary.exchange.backend.model.CampStatus;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class CampDistrictStatusRepositoryImpl implements CampDistrictStatusRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int applyStatusTransitions(Integer campId, Map<CampStatus, CampStatus> transitions, CampStatus nullTarget) {
+        // Group the sources by target: one WHEN branch per distinct new status
+        Map<CampStatus, List<CampStatus>> sourcesByTarget = new EnumMap<>(CampStatus.class);
+        transitions.forEach((from, to) -> sourcesByTarget.computeIfAbsent(to, key -> new ArrayList<>()).add(from));
+
+        StringBuilder status = new StringBuilder("CASE");
+        StringBuilder available = new StringBuilder("CASE");
+        int branch = 0;
+        for (Map.Entry<CampStatus, List<CampStatus>> entry : sourcesByTarget.entrySet()) {
+            status.append(" WHEN s.localStatus IN :from").append(branch).append(" THEN ").append(literal(entry.getKey()));
+            available.append(" WHEN s.localStatus IN :from").append(branch).append(" THEN ").append(entry.getKey().isAvailable());
+            branch++;
+        }
+        // Only rows with a null status reach ELSE, the WHERE clause excludes everything else
+        status.append(" ELSE ").append(literal(nullTarget)).append(" END");
+        available.append(" ELSE ").append(nullTarget.isAvailable()).append(" END");
+
+        String where = transitions.isEmpty()
+                ? "s.localStatus IS NULL"
+                : "(s.localStatus IS NULL OR s.localStatus IN :changing)";
+
+        Query update = em.createQuery("UPDATE CampDistrictStatus s SET s.localStatus = " + status
+                + ", s.available = " + available
+                + " WHERE s.campInstance.id = :campId AND " + where);
+
+        update.setParameter("campId", campId);
+        branch = 0;
+        for (List<CampStatus> sources : sourcesByTarget.values()) {
+            update.setParameter("from" + branch++, sources);
+        }
+        if (!transitions.isEmpty()) {
+            update.setParameter("changing", transitions.keySet());
+        }
+        return update.executeUpdate();
+    }
+
+    // Enum constants are rendered as HQL literals so the CASE result type is the mapped enum
+    private static String literal(CampStatus status) {
+        return CampStatus.class.getName() + "." + status.name();
+    }
+}
@@ -1,11 +1,26 @@
 package org.rotary.exchange.backend.repository;
 
 import org.rotary.exchange.backend.model.CampInstance;
+import org.rotary.exchange.backend.model.CampStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface CampInstanceRepository extends JpaRepository<CampInstance, Integer>, JpaSpecificationExecutor<CampInstance> {
+public interface CampInstanceRepository extends JpaRepository<CampInstance, Integer>, JpaSpecificationExecutor<CampInstance>,
+        CampInstanceRepositoryCustom {
+
+    // Global statuses of many camps, without loading templates and coordinators
+    @Query("SELECT c.id AS id, c.globalStatus AS globalStatus FROM CampInstance c WHERE c.id IN :ids")
+    List<GlobalStatusView> findGlobalStatuses(@Param("ids") Collection<Integer> ids);
 
+    interface GlobalStatusView {
+        Integer getId();
+        CampStatus getGlobalStatus();
+    }
 }
\ No newline at end of file
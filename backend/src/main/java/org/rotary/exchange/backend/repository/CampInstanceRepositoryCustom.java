@@ -0,0 +1,40 @@
+package org.rotary.exchange.backend.repository;
+
+import org.rotary.exchange.backend.dto.CampCursor;
+import org.rotary.exchange.backend.dto.CampResponseDTO;
+import org.rotary.exchange.backend.dto.CampWithDistrictStatusDTO;
+import org.rotary.exchange.backend.model.CampInstance;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Read-only camp queries that select DTO columns directly instead of loading entities.
+ */
+public interface CampInstanceRepositoryCustom {
+
+    /**
+     * Camps matching the specification, projected straight into CampResponseDTO.
+     * No entities are loaded, so nothing is managed or dirty-checked.
+     */
+    Page<CampResponseDTO> findCampSummaries(Specification<CampInstance> spec, Pageable pageable);
+
+    /**
+     * Non-archived camps with the local status of the given district, in a single statement
+     * (plus a count query when the page size requires it).
+     */
+    Page<CampWithDistrictStatusDTO> findCampsForDistrict(Integer districtId, Pageable pageable);
+
+    /**
+     * Up to {@code limit} camps matching the specification that come after the cursor
+     * in (dateStart, id) order. A null cursor starts from the beginning.
+     */
+    List<CampResponseDTO> findCampSummariesAfter(Specification<CampInstance> spec, CampCursor after, int limit);
+
+    /**
+     * Keyset variant of {@link #findCampsForDistrict(Integer, Pageable)}.
+     */
+    List<CampWithDistrictStatusDTO> findCampsForDistrictAfter(Integer districtId, CampCursor after, int limit);
+}
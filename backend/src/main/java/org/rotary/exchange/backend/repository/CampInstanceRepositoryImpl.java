@@ -0,0 +1,193 @@
+package org.rotary.exchange.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.rotary.exchange.backend.dto.CampCursor;
+import org.rotary.exchange.backend.dto.CampResponseDTO;
+import org.rotary.exchange.backend.dto.CampWithDistrictStatusDTO;
+import org.rotary.exchange.backend.model.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CampInstanceRepositoryImpl implements CampInstanceRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public Page<CampResponseDTO> findCampSummaries(Specification<CampInstance> spec, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+
+        CriteriaQuery<CampResponseDTO> query = cb.createQuery(CampResponseDTO.class);
+        Root<CampInstance> root = query.from(CampInstance.class);
+        // Apply the filters first so the columns below reuse the template join they create
+        Predicate filters = spec.toPredicate(root, query, cb);
+
+        query.select(cb.construct(CampResponseDTO.class, summaryColumns(root).toArray(new Selection<?>[0])));
+        // An unsorted pageable keeps any ordering set by the specification (e.g. relevance)
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        if (filters != null) {
+            query.where(filters);
+        }
+
+        List<CampResponseDTO> content = page(em.createQuery(query), pageable);
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<CampInstance> countRoot = countQuery.from(CampInstance.class);
+            Predicate countFilters = spec.toPredicate(countRoot, countQuery, cb);
+            countQuery.select(cb.count(countRoot));
+            if (countFilters != null) {
+                countQuery.where(countFilters);
+            }
+            return em.createQuery(countQuery).getSingleResult();
+        });
+    }
+
+    @Override
+    public Page<CampWithDistrictStatusDTO> findCampsForDistrict(Integer districtId, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+
+        CriteriaQuery<CampWithDistrictStatusDTO> query = cb.createQuery(CampWithDistrictStatusDTO.class);
+        Root<CampInstance> root = query.from(CampInstance.class);
+
+        // LEFT JOIN ... ON district: camps without a status row for this district are still listed
+        Join<CampInstance, CampDistrictStatus> statusJoin = root.join("districtStatuses", JoinType.LEFT);
+        statusJoin.on(cb.equal(statusJoin.get("district").get("id"), districtId));
+
+        List<Selection<?>> columns = summaryColumns(root);
+        columns.add(statusJoin.get("localStatus"));
+
+        query.select(cb.construct(CampWithDistrictStatusDTO.class, columns.toArray(new Selection<?>[0])))
+                .where(notArchived(cb, root))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<CampWithDistrictStatusDTO> content = page(em.createQuery(query), pageable);
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<CampInstance> countRoot = countQuery.from(CampInstance.class);
+            countQuery.select(cb.count(countRoot)).where(notArchived(cb, countRoot));
+            return em.createQuery(countQuery).getSingleResult();
+        });
+    }
+
+    @Override
+    public List<CampResponseDTO> findCampSummariesAfter(Specification<CampInstance> spec, CampCursor after, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+
+        CriteriaQuery<CampResponseDTO> query = cb.createQuery(CampResponseDTO.class);
+        Root<CampInstance> root = query.from(CampInstance.class);
+        Predicate filters = spec.toPredicate(root, query, cb);
+
+        query.select(cb.construct(CampResponseDTO.class, summaryColumns(root).toArray(new Selection<?>[0])));
+
+        return seek(query, root, filters, after, limit);
+    }
+
+    @Override
+    public List<CampWithDistrictStatusDTO> findCampsForDistrictAfter(Integer districtId, CampCursor after, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+
+        CriteriaQuery<CampWithDistrictStatusDTO> query = cb.createQuery(CampWithDistrictStatusDTO.class);
+        Root<CampInstance> root = query.from(CampInstance.class);
+
+        Join<CampInstance, CampDistrictStatus> statusJoin = root.join("districtStatuses", JoinType.LEFT);
+        statusJoin.on(cb.equal(statusJoin.get("district").get("id"), districtId));
+
+        List<Selection<?>> columns = summaryColumns(root);
+        columns.add(statusJoin.get("localStatus"));
+        query.select(cb.construct(CampWithDistrictStatusDTO.class, columns.toArray(new Selection<?>[0])));
+
+        return seek(query, root, notArchived(cb, root), after, limit);
+    }
+
+    /**
+     * Keyset page: order by (dateStart, id) and continue strictly after the cursor, so the
+     * database walks idx_camp_instance_date_start_id from the cursor position instead of
+     * skipping an offset. Any ordering set by the specification is replaced. No count query is issued.
+     */
+    private <T> List<T> seek(CriteriaQuery<T> query, Root<CampInstance> root, Predicate filters,
+                             CampCursor after, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        List<Predicate> where = new ArrayList<>();
+        if (filters != null) {
+            where.add(filters);
+        }
+        if (after != null) {
+            Path<LocalDate> dateStart = root.get("dateStart");
+            where.add(cb.or(
+                    cb.greaterThan(dateStart, after.dateStart()),
+                    cb.and(cb.equal(dateStart, after.dateStart()), cb.greaterThan(root.get("id"), after.id()))));
+        }
+
+        query.where(where.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("dateStart")), cb.asc(root.get("id")));
+
+        return em.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Columns of CampResponseDTO's flat constructor, in order. Template and coordinator
+     * are LEFT joined so their columns come from the same statement.
+     */
+    private List<Selection<?>> summaryColumns(Root<CampInstance> root) {
+        Join<CampInstance, ?> template = joinOnce(root, "campTemplate");
+        Join<CampInstance, ?> coordinator = joinOnce(root, "coordinator");
+
+        List<Selection<?>> columns = new ArrayList<>();
+        columns.add(root.get("id"));
+        columns.add(root.get("edition"));
+        columns.add(template.get("name"));
+        columns.add(template.get("description"));
+        columns.add(template.get("imageUrl"));
+        columns.add(template.get("flyerPdfUrl"));
+        columns.add(template.get("ageMin"));
+        columns.add(template.get("ageMax"));
+        columns.add(root.get("dateStart"));
+        columns.add(root.get("dateEnd"));
+        columns.add(root.get("price"));
+        columns.add(root.get("globalStatus"));
+        columns.add(root.get("limitTotal"));
+        columns.add(coordinator.get("id"));
+        columns.add(coordinator.get("firstName"));
+        columns.add(coordinator.get("lastName"));
+        return columns;
+    }
+
+    /**
+     * Reuse a join a specification already added (e.g. the template join used for text search)
+     * instead of joining the same table twice.
+     */
+    private Join<CampInstance, ?> joinOnce(Root<CampInstance> root, String attribute) {
+        for (Join<CampInstance, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute)) {
+                return join;
+            }
+        }
+        return root.join(attribute, JoinType.LEFT);
+    }
+
+    private Predicate notArchived(CriteriaBuilder cb, Root<CampInstance> root) {
+        return cb.notEqual(root.get("globalStatus"), CampStatus.ARCHIVED);
+    }
+
+    private <T> List<T> page(TypedQuery<T> query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+}
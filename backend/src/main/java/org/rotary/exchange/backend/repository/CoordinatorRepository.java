@@ -2,8 +2,12 @@ package org.rotary.exchange.backend.repository;
 
 import org.rotary.exchange.backend.model.Coordinator;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +17,32 @@ public interface CoordinatorRepository extends JpaRepository<Coordinator, Intege
     boolean existsByEmail(String email);
     boolean existsByProfilePictureUrl(String profilePictureUrl);
     List<Coordinator> findByDistrictId(Integer districtId);
+
+    // Invalidates the claims in the coordinator's access tokens
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Coordinator c SET c.claimsVersion = c.claimsVersion + 1, c.claimsChangedAt = :now WHERE c.id = :id")
+    int bumpClaimsVersion(@Param("id") Integer id, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Coordinator c SET c.claimsVersion = c.claimsVersion + 1, c.claimsChangedAt = :now "
+            + "WHERE c.district.id = :districtId")
+    int bumpClaimsVersionByDistrict(@Param("districtId") Integer districtId, @Param("now") Instant now);
+
+    @Query("SELECT c.id AS id, c.claimsVersion AS claimsVersion, c.claimsChangedAt AS claimsChangedAt "
+            + "FROM Coordinator c WHERE c.claimsChangedAt >= :since")
+    List<ClaimsVersionView> findClaimsChangedSince(@Param("since") Instant since);
+
+    @Query("SELECT c.id AS id, c.claimsVersion AS claimsVersion, c.claimsChangedAt AS claimsChangedAt "
+            + "FROM Coordinator c WHERE c.id = :id")
+    List<ClaimsVersionView> findClaimsVersion(@Param("id") Integer id);
+
+    @Query("SELECT c.id AS id, c.claimsVersion AS claimsVersion, c.claimsChangedAt AS claimsChangedAt "
+            + "FROM Coordinator c WHERE c.district.id = :districtId")
+    List<ClaimsVersionView> findClaimsVersionsByDistrict(@Param("districtId") Integer districtId);
+
+    interface ClaimsVersionView {
+        Integer getId();
+        int getClaimsVersion();
+        Instant getClaimsChangedAt();
+    }
 }
@@ -1,10 +1,19 @@
 package org.rotary.exchange.backend.repository;
 
 import org.rotary.exchange.backend.model.Country;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CountryRepository extends JpaRepository<Country, Integer> {
 
+    // Served from the query cache until a country changes
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Country> findAll();
 }
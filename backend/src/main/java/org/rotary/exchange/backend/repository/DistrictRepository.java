@@ -1,17 +1,34 @@
 package org.rotary.exchange.backend.repository;
 
 import org.rotary.exchange.backend.model.District;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface DistrictRepository extends JpaRepository<District, Integer> {
+    // Served from the query cache until a district changes
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<District> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<District> findByCountryId(Integer countryId);
     
     Optional<District> findByAccessCode(String accessCode);
     
     Optional<District> findByCode(String code);
+
+    // Existence check for many districts without loading them
+    @Query("SELECT d.id FROM District d WHERE d.id IN :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,28 @@
+package org.rotary.exchange.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.rotary.exchange.backend.model.FileCleanupTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface FileCleanupTaskRepository extends JpaRepository<FileCleanupTask, Integer> {
+
+    // Oldest due tasks first, one batch at a time. FOR UPDATE SKIP LOCKED (lock timeout -2):
+    // rows another instance is claiming are skipped instead of waited for
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM FileCleanupTask t WHERE t.nextAttemptAt <= :now ORDER BY t.nextAttemptAt")
+    List<FileCleanupTask> claimDue(@Param("now") Instant now, Pageable batch);
+
+    boolean existsByUrl(String url);
+}
@@ -3,6 +3,7 @@ package org.rotary.exchange.backend.repository;
 import io.swagger.v3.oas.annotations.media.Schema;
 import org.rotary.exchange.backend.model.Coordinator;
 import org.rotary.exchange.backend.model.RefreshToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,12 +11,31 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Integer> {
 
-    Optional<RefreshToken> findByToken(String token);
+    @Schema(description = "Look up a token by its hash together with the coordinator, district and roles in one statement")
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.coordinator c LEFT JOIN FETCH c.roles "
+            + "LEFT JOIN FETCH c.district d LEFT JOIN FETCH d.country WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findWithCoordinatorByTokenHash(@Param("tokenHash") byte[] tokenHash);
+
+    @Schema(description = "Session whose previous (already rotated) token has this hash")
+    Optional<RefreshToken> findByPreviousTokenHash(byte[] previousTokenHash);
+
+    @Schema(description = "Rotate the token of a session, only if it still has the presented token (compare-and-set)")
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.tokenHash = :newHash, rt.previousTokenHash = :oldHash, rt.rotatedAt = :now "
+            + "WHERE rt.id = :id AND rt.tokenHash = :oldHash AND rt.revoked = false")
+    int rotate(@Param("id") Integer id, @Param("oldHash") byte[] oldHash,
+               @Param("newHash") byte[] newHash, @Param("now") Instant now);
+
+    @Schema(description = "Revoke a whole session (used when a rotated token is replayed)")
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.id = :id")
+    int revokeById(@Param("id") Integer id);
 
     @Schema(description = "Revoke all refresh tokens for a coordinator (used on logout-all, password change)")
     @Modifying
@@ -24,11 +44,15 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Inte
 
     @Schema(description = "Revoke a specific token (used on single logout)")
     @Modifying
-    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.token = :token")
-    int revokeByToken(@Param("token") String token);
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.tokenHash = :tokenHash")
+    int revokeByTokenHash(@Param("tokenHash") byte[] tokenHash);
 
-    @Schema(description = "Delete expired tokens (for cleanup job)")
-    @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < :now OR rt.revoked = true")
-    int deleteExpiredAndRevoked(@Param("now") Instant now);
+    @Schema(description = "IDs of expired or revoked tokens, oldest first, one purge batch at a time; "
+            + "served by idx_refresh_token_expiry_date and the partial idx_refresh_token_revoked_id")
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.expiryDate < :now OR rt.revoked = true ORDER BY rt.id")
+    List<Integer> findPurgeableIds(@Param("now") Instant now, Pageable pageable);
+
+    @Schema(description = "Expiry of the oldest expired token still stored, to measure how far the purge is behind")
+    @Query("SELECT MIN(rt.expiryDate) FROM RefreshToken rt WHERE rt.expiryDate < :now")
+    Instant findOldestExpiry(@Param("now") Instant now);
 }
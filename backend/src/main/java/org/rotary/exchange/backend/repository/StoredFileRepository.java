@@ -0,0 +1,81 @@
+package org.rotary.exchange.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.rotary.exchange.backend.model.StoredFile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, Integer> {
+
+    Optional<StoredFile> findByUrl(String url);
+
+    // SELECT ... FOR UPDATE: uploads and reference changes of the file wait until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM StoredFile f WHERE f.url = :url")
+    Optional<StoredFile> findByUrlForUpdate(@Param("url") String url);
+
+    @Modifying
+    @Query("UPDATE StoredFile f SET f.contentHash = :contentHash, f.lastUploadedAt = :now WHERE f.url = :url")
+    int markUploaded(@Param("url") String url, @Param("contentHash") String contentHash, @Param("now") Instant now);
+
+    // Keyset batches of the whole registry, for reconciliation. Locked like findByUrlForUpdate,
+    // so reference changes of these files wait until the batch has been recounted
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM StoredFile f WHERE f.id > :afterId ORDER BY f.id")
+    List<StoredFile> findBatchAfterForUpdate(@Param("afterId") Integer afterId, Pageable batch);
+
+    // Atomic in the database, safe under concurrent updates of different entities sharing a file
+    @Modifying
+    @Query("UPDATE StoredFile f SET f.refCount = f.refCount + 1 WHERE f.url = :url")
+    int incrementRefCount(@Param("url") String url);
+
+    @Modifying
+    @Query("UPDATE StoredFile f SET f.refCount = f.refCount - 1 WHERE f.url = :url AND f.refCount > 0")
+    int decrementRefCount(@Param("url") String url);
+
+    @Modifying
+    @Query("DELETE FROM StoredFile f WHERE f.url = :url")
+    int deleteByUrl(@Param("url") String url);
+
+    @Query("SELECT f.url FROM StoredFile f WHERE f.refCount = 0 AND COALESCE(f.lastUploadedAt, f.createdAt) < :before")
+    List<String> findUnreferencedUrls(@Param("before") Instant before);
+
+    // Actual references of the given files, for reconciliation
+    @Query("SELECT t.imageUrl AS url, COUNT(t) AS count FROM CampTemplate t WHERE t.imageUrl IN :urls GROUP BY t.imageUrl")
+    List<UrlCount> countTemplateImageReferences(@Param("urls") Collection<String> urls);
+
+    @Query("SELECT t.flyerPdfUrl AS url, COUNT(t) AS count FROM CampTemplate t WHERE t.flyerPdfUrl IN :urls GROUP BY t.flyerPdfUrl")
+    List<UrlCount> countTemplateFlyerReferences(@Param("urls") Collection<String> urls);
+
+    @Query("SELECT c.profilePictureUrl AS url, COUNT(c) AS count FROM Coordinator c WHERE c.profilePictureUrl IN :urls GROUP BY c.profilePictureUrl")
+    List<UrlCount> countProfilePictureReferences(@Param("urls") Collection<String> urls);
+
+    // Referenced uploads without a registry entry (e.g. uploaded before the registry existed)
+    @Query("SELECT DISTINCT t.imageUrl FROM CampTemplate t WHERE t.imageUrl LIKE '/uploads/%' "
+            + "AND NOT EXISTS (SELECT f FROM StoredFile f WHERE f.url = t.imageUrl)")
+    List<String> findUnregisteredTemplateImageUrls();
+
+    @Query("SELECT DISTINCT t.flyerPdfUrl FROM CampTemplate t WHERE t.flyerPdfUrl LIKE '/uploads/%' "
+            + "AND NOT EXISTS (SELECT f FROM StoredFile f WHERE f.url = t.flyerPdfUrl)")
+    List<String> findUnregisteredTemplateFlyerUrls();
+
+    @Query("SELECT DISTINCT c.profilePictureUrl FROM Coordinator c WHERE c.profilePictureUrl LIKE '/uploads/%' "
+            + "AND NOT EXISTS (SELECT f FROM StoredFile f WHERE f.url = c.profilePictureUrl)")
+    List<String> findUnregisteredProfilePictureUrls();
+
+    interface UrlCount {
+        String getUrl();
+        Long getCount();
+    }
+}
@@ -3,6 +3,7 @@ package org.rotary.exchange.backend.repository.spec;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
+import org.rotary.exchange.backend.config.FullTextSearchFunctions;
 import org.rotary.exchange.backend.dto.CampSearchCriteria;
 import org.rotary.exchange.backend.model.CampDistrictStatus;
 import org.rotary.exchange.backend.model.CampInstance;
@@ -12,10 +13,26 @@ import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class CampSpecifications {
 
+    // Anything that is not a letter or digit separates search terms and never reaches to_tsquery,
+    // so the generated query cannot contain tsquery operators or quotes from user input
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     public static Specification<CampInstance> withCriteria(CampSearchCriteria criteria, boolean publicViewOnly) {
+        return withCriteria(criteria, publicViewOnly, false);
+    }
+
+    /**
+     * @param fullText route the text query to the PostgreSQL full-text index
+     *                 (prefix matching, accent folding, optional relevance ranking)
+     *                 instead of LIKE matching
+     */
+    public static Specification<CampInstance> withCriteria(CampSearchCriteria criteria, boolean publicViewOnly,
+                                                           boolean fullText) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -30,12 +47,8 @@ public class CampSpecifications {
                     Join<CampInstance, CampDistrictStatus> statusJoin = root.join("districtStatuses", JoinType.INNER);
                     predicates.add(cb.equal(statusJoin.get("district").get("id"), criteria.getDistrictId()));
                     
-                    // Check local status for this district (show only available camps)
-                    predicates.add(statusJoin.get("localStatus").in(
-                            CampStatus.OPEN, 
-                            CampStatus.ONLY_MALE, 
-                            CampStatus.ONLY_FEMALE
-                    ));
+                    // Show only camps available in this district (materialized flag, indexed)
+                    predicates.add(cb.isTrue(statusJoin.get("available")));
                 } else {
                     // Fallback: filter by global status (shouldn't happen for students)
                     predicates.add(root.get("globalStatus").in(
@@ -50,7 +63,18 @@ public class CampSpecifications {
             }
 
             // 3. FILTER: Text Search (Name or Description)
-            if (criteria.getQuery() != null && !criteria.getQuery().isEmpty()) {
+            String tsQuery = fullText ? toPrefixTsQuery(criteria.getQuery()) : null;
+            if (tsQuery != null) {
+                predicates.add(cb.isTrue(cb.function(FullTextSearchFunctions.MATCH, Boolean.class,
+                        templateJoin.get("name"), templateJoin.get("description"), cb.literal(tsQuery))));
+
+                // Best matches first (not for the count query)
+                if (criteria.isSortByRelevance() && !Long.class.equals(query.getResultType())) {
+                    query.orderBy(cb.desc(cb.function(FullTextSearchFunctions.RANK, Float.class,
+                            templateJoin.get("name"), templateJoin.get("description"), cb.literal(tsQuery))),
+                            cb.asc(root.get("id")));
+                }
+            } else if (criteria.getQuery() != null && !criteria.getQuery().isEmpty()) {
                 String likePattern = "%" + criteria.getQuery().toLowerCase() + "%";
                 Predicate nameMatch = cb.like(cb.lower(templateJoin.get("name")), likePattern);
                 Predicate descMatch = cb.like(cb.lower(templateJoin.get("description")), likePattern);
@@ -80,4 +104,18 @@ public class CampSpecifications {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * "summer sail" -> "summer:* & sail:*". Returns null if the query has no searchable terms.
+     */
+    static String toPrefixTsQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        String tsQuery = TERM_SEPARATOR.splitAsStream(text.toLowerCase())
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package org.rotary.exchange.backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.rotary.exchange.backend.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits failed logins per email and per client IP, checked before any password is hashed.
+ *
+ * Failures are counted in a sliding window of {@code login-throttle.window-seconds}, estimated
+ * from the current and previous fixed window (the previous one weighted by how much of it still
+ * overlaps). Updates go through ConcurrentHashMap.compute, which only locks the key's bin.
+ * Idle entries are swept every minute and each map holds at most {@code max-keys} entries;
+ * beyond that new keys are not tracked (the other scope still applies).
+ */
+@Component
+public class LoginThrottle {
+
+    private final Clock clock;
+    private final long windowMillis;
+    private final int maxKeys;
+    private final Scope email;
+    private final Scope ip;
+
+    @Autowired
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${login-throttle.window-seconds:300}") long windowSeconds,
+                         @Value("${login-throttle.email.max-failures:5}") int maxEmailFailures,
+                         @Value("${login-throttle.ip.max-failures:20}") int maxIpFailures,
+                         @Value("${login-throttle.max-keys:100000}") int maxKeys) {
+        this(meterRegistry, windowSeconds, maxEmailFailures, maxIpFailures, maxKeys, Clock.systemUTC());
+    }
+
+    LoginThrottle(MeterRegistry meterRegistry, long windowSeconds, int maxEmailFailures, int maxIpFailures,
+                  int maxKeys, Clock clock) {
+        this.clock = clock;
+        this.windowMillis = windowSeconds * 1000;
+        this.maxKeys = maxKeys;
+        this.email = new Scope("email", maxEmailFailures, meterRegistry);
+        this.ip = new Scope("ip", maxIpFailures, meterRegistry);
+    }
+
+    /**
+     * @throws TooManyRequestsException if the email or the IP has too many recent failures
+     */
+    public void check(String loginEmail, String clientIp) {
+        long now = clock.millis();
+        email.check(normalize(loginEmail), now);
+        ip.check(clientIp, now);
+    }
+
+    public void recordFailure(String loginEmail, String clientIp) {
+        long now = clock.millis();
+        email.record(normalize(loginEmail), now);
+        ip.record(clientIp, now);
+    }
+
+    /**
+     * A successful login clears the email's failures; the IP's stay, as it may be shared.
+     */
+    public void recordSuccess(String loginEmail) {
+        email.windows.remove(normalize(loginEmail));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void sweep() {
+        long now = clock.millis();
+        email.sweep(now);
+        ip.sweep(now);
+    }
+
+    private static String normalize(String loginEmail) {
+        return loginEmail == null ? "" : loginEmail.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Failure counts of the current and previous fixed window starting at {@code start}.
+     */
+    private record Window(long start, int previous, int current) {
+
+        Window advance(long now, long windowMillis) {
+            long currentStart = now - now % windowMillis;
+            if (currentStart == start) {
+                return this;
+            }
+            return new Window(currentStart, currentStart - start == windowMillis ? current : 0, 0);
+        }
+
+        double estimate(long now, long windowMillis) {
+            double previousWeight = 1.0 - (double) (now - start) / windowMillis;
+            return previous * previousWeight + current;
+        }
+    }
+
+    private final class Scope {
+
+        private final int maxFailures;
+        private final Map<String, Window> windows = new ConcurrentHashMap<>();
+        private final Counter failures;
+        private final Counter rejected;
+
+        Scope(String name, int maxFailures, MeterRegistry meterRegistry) {
+            this.maxFailures = maxFailures;
+            this.failures = Counter.builder("auth.login.failures").tag("scope", name)
+                    .description("Failed logins counted by the throttle")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("auth.login.throttled").tag("scope", name)
+                    .description("Logins rejected before authentication because of recent failures")
+                    .register(meterRegistry);
+            Gauge.builder("auth.login.throttle.keys", windows, Map::size).tag("scope", name)
+                    .description("Emails or IPs with recent failed logins")
+                    .register(meterRegistry);
+        }
+
+        void check(String key, long now) {
+            if (key == null) {
+                return;
+            }
+            Window window = windows.get(key);
+            if (window == null) {
+                return;
+            }
+            Window advanced = window.advance(now, windowMillis);
+            if (advanced.estimate(now, windowMillis) >= maxFailures) {
+                rejected.increment();
+                long retryAfterMillis = advanced.start() + windowMillis - now;
+                throw new TooManyRequestsException("Too many failed sign-in attempts. Please try again later.",
+                        Math.max(1, retryAfterMillis / 1000));
+            }
+        }
+
+        void record(String key, long now) {
+            if (key == null || (windows.size() >= maxKeys && !windows.containsKey(key))) {
+                return;
+            }
+            failures.increment();
+            windows.compute(key, (k, window) -> {
+                Window advanced = window == null ? new Window(now - now % windowMillis, 0, 0) : window.advance(now, windowMillis);
+                return new Window(advanced.start(), advanced.previous(), advanced.current() + 1);
+            });
+        }
+
+        void sweep(long now) {
+            // Once both windows have passed, an entry no longer contributes to any estimate
+            windows.entrySet().removeIf(entry -> entry.getValue().start() + 2 * windowMillis <= now);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package org.rotary.exchange.backend.security;
 
 import jakarta.servlet.DispatcherType;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -41,15 +43,23 @@ public class WebSecurityConfig {
         return new JwtAuthTokenFilter();
     }
 
+    /**
+     * BCrypt on a core-count-sized pool with a bounded queue, see BoundedPasswordEncoder.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${password-hash.threads:0}") int threads,
+                                           @Value("${password-hash.queue-capacity:50}") int queueCapacity,
+                                           @Value("${password-hash.wait-timeout-ms:2000}") long waitTimeoutMillis) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity,
+                waitTimeoutMillis, meterRegistry);
     }
 
     @Bean
     @SuppressWarnings("deprecation")
-    public AuthenticationManager authenticationManager() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(passwordEncoder());
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(passwordEncoder);
         authProvider.setUserDetailsService(userDetailsService);
         return new ProviderManager(authProvider);
     }
@@ -86,13 +96,20 @@ public class WebSecurityConfig {
                                 "/api/auth/**",
                                 "/uploads/**"
                         ).permitAll()
+                        // Actuator: health is public, metrics are admin-only
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Swagger/OpenAPI
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         // Public endpoints - students can view camps without authentication
                         .requestMatchers(HttpMethod.GET, "/api/camps").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/camps/scroll").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/camps/{id}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/camps/statuses").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/countries/**").permitAll()
+                        // Uploaded images and flyers (same content as /uploads/**) and their resized variants
+                        .requestMatchers(HttpMethod.GET, "/api/files/images/*", "/api/files/flyers/*").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/files/variants/**").permitAll()
                         // Districts: public GET for list and single, but access-code endpoints are admin-only
                         .requestMatchers(HttpMethod.GET, "/api/districts").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/districts/{id}").permitAll()
@@ -111,8 +128,8 @@ public class WebSecurityConfig {
                         // Protected template endpoints - all require authentication now
                         .requestMatchers("/api/templates/**").authenticated()
                         // Protected camp endpoints
-                        .requestMatchers("/api/camps/my-camps").authenticated()
-                        .requestMatchers("/api/camps/district").authenticated()
+                        .requestMatchers("/api/camps/my-camps", "/api/camps/my-camps/scroll").authenticated()
+                        .requestMatchers("/api/camps/district", "/api/camps/district/scroll").authenticated()
                         .requestMatchers(HttpMethod.POST, "/api/camps/**").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/api/camps/**").authenticated()
                         .requestMatchers(HttpMethod.PATCH, "/api/camps/**").authenticated()
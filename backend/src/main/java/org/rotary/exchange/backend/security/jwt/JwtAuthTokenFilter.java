@@ -1,5 +1,6 @@
 package org.rotary.exchange.backend.security.jwt;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,8 +23,13 @@ import java.util.stream.Collectors;
  * JWT Authentication Filter - runs on every request.
  * Extracts JWT from Authorization header, validates it, and sets up SecurityContext.
  * 
- * Optimization: If token contains embedded claims (userId, roles), uses them directly
- * without a database lookup. Falls back to DB lookup for legacy tokens.
+ * Optimization: If token contains embedded claims (userId, roles, district), uses them directly
+ * without a database lookup. Falls back to DB lookup for legacy tokens. Tokens whose claims
+ * were invalidated in the StaleClaimsRegistry (e.g. after a district reassignment) are refused,
+ * so the client refreshes them.
+ * The token is verified and parsed exactly once per request; all claims are read
+ * from that single parse result. Tokens with embedded claims are also remembered in
+ * the VerifiedTokenCache, so repeat requests with the same token skip verification.
  */
 public class JwtAuthTokenFilter extends OncePerRequestFilter {
 
@@ -33,24 +39,20 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private StaleClaimsRegistry staleClaimsRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            UsernamePasswordAuthenticationToken authentication = jwt != null ? authenticate(jwt) : null;
             
-            if (jwt != null && tokenProvider.validateJwtToken(jwt)) {
-                UsernamePasswordAuthenticationToken authentication;
-                
-                // Check if token has embedded claims (new tokens)
-                if (tokenProvider.hasEmbeddedClaims(jwt)) {
-                    // Fast path: use claims from token, no DB lookup
-                    authentication = createAuthenticationFromClaims(jwt);
-                } else {
-                    // Legacy path: load from database
-                    authentication = createAuthenticationFromDatabase(jwt);
-                }
-                
+            if (authentication != null) {
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
@@ -61,36 +63,67 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UsernamePasswordAuthenticationToken authenticate(String jwt) {
+        // Hot path: token already verified by an earlier request
+        UserPrinciple cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            return new UsernamePasswordAuthenticationToken(cached, null, cached.getAuthorities());
+        }
+
+        Claims claims = tokenProvider.parseVerifiedClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+
+        Integer userId = tokenProvider.getUserId(claims);
+        if (userId != null && staleClaimsRegistry.isStale(userId, tokenProvider.getClaimsVersion(claims))) {
+            logger.debug("Access token of coordinator " + userId + " has outdated claims");
+            return null;
+        }
+
+        // Check if token has embedded claims (new tokens)
+        if (tokenProvider.hasEmbeddedClaims(claims)) {
+            // Fast path: use claims from token, no DB lookup
+            UserPrinciple userPrinciple = createPrincipalFromClaims(claims);
+            verifiedTokenCache.put(jwt, userPrinciple, claims.getExpiration());
+            return new UsernamePasswordAuthenticationToken(userPrinciple, null, userPrinciple.getAuthorities());
+        }
+
+        // Legacy path: load from database
+        return createAuthenticationFromDatabase(claims);
+    }
+
     /**
-     * Create authentication from JWT claims (no DB lookup - fast)
+     * Create principal from JWT claims (no DB lookup - fast)
      */
-    private UsernamePasswordAuthenticationToken createAuthenticationFromClaims(String jwt) {
-        Integer userId = tokenProvider.getUserIdFromToken(jwt);
-        String email = tokenProvider.getUserNameFromJwtToken(jwt);
-        List<String> roles = tokenProvider.getRolesFromToken(jwt);
+    private UserPrinciple createPrincipalFromClaims(Claims claims) {
+        Integer userId = tokenProvider.getUserId(claims);
+        String email = claims.getSubject();
+        List<String> roles = tokenProvider.getRoles(claims);
 
         List<SimpleGrantedAuthority> authorities = roles.stream()
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
 
         // Create a lightweight UserPrinciple from claims
-        UserPrinciple userPrinciple = new UserPrinciple(
+        return new UserPrinciple(
                 userId, 
                 email, 
                 null,  // firstName not needed for auth
                 null,  // lastName not needed for auth
+                tokenProvider.getDistrictId(claims),
+                tokenProvider.getDistrictCode(claims),
+                tokenProvider.getClaimsVersion(claims),
                 null,  // password not needed for auth
                 authorities
         );
-
-        return new UsernamePasswordAuthenticationToken(userPrinciple, null, authorities);
     }
 
     /**
      * Create authentication from database (fallback for legacy tokens)
      */
-    private UsernamePasswordAuthenticationToken createAuthenticationFromDatabase(String jwt) {
-        String username = tokenProvider.getUserNameFromJwtToken(jwt);
+    private UsernamePasswordAuthenticationToken createAuthenticationFromDatabase(Claims claims) {
+        String username = claims.getSubject();
         UserDetails userDetails = userDetailsService.loadUserByUsername(username);
         return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
     }
@@ -9,10 +9,12 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 import org.rotary.exchange.backend.security.service.UserPrinciple;
 
+import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
@@ -25,32 +27,45 @@ public class JwtProvider {
     @Value("${jwt.expiration}")
     private int jwtExpiration;
 
+    // Built once at startup: deriving the key and the parser is not free, and both are thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
 
     /**
      * Generate JWT token from Authentication with full claims
      */
     public String generateJwtToken(Authentication authentication) {
-        UserPrinciple userPrinciple = (UserPrinciple) authentication.getPrincipal();
-        return generateTokenWithClaims(
-                userPrinciple.getId(),
-                userPrinciple.getEmail(),
-                userPrinciple.getAuthorities().stream()
-                        .map(GrantedAuthority::getAuthority)
-                        .collect(Collectors.toList())
-        );
+        return generateToken((UserPrinciple) authentication.getPrincipal());
     }
 
     /**
-     * Generate JWT token with embedded claims (userId, email, roles)
+     * Generate JWT token with embedded claims (userId, email, roles, district, claims version).
+     * The district claim is always present, empty for coordinators without a district,
+     * so it can be told apart from tokens issued before it existed.
      */
-    public String generateTokenWithClaims(Integer userId, String email, List<String> roles) {
+    public String generateToken(UserPrinciple userPrinciple) {
+        List<String> roles = userPrinciple.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+        Map<String, Object> district = userPrinciple.getDistrictId() != null
+                ? Map.of("id", userPrinciple.getDistrictId(), "code", userPrinciple.getDistrictCode())
+                : Map.of();
         return Jwts.builder()
-                .subject(email)
-                .claim("userId", userId)
+                .subject(userPrinciple.getEmail())
+                .claim("userId", userPrinciple.getId())
                 .claim("roles", roles)
+                .claim("district", district)
+                .claim("claimsVersion", userPrinciple.getClaimsVersion())
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpiration * 1000L))
                 .signWith(getSigningKey())
@@ -59,7 +74,7 @@ public class JwtProvider {
 
     /**
      * Generate token from email only (for refresh - will load roles from DB)
-     * @deprecated Use generateTokenWithClaims for better performance
+     * @deprecated Use generateToken for better performance
      */
     public String generateTokenFromEmail(String email) {
         return Jwts.builder()
@@ -71,9 +86,17 @@ public class JwtProvider {
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseVerifiedClaims(authToken) != null;
+    }
+
+    /**
+     * Verify the signature and expiry once and return the claims.
+     * Returns null (after logging the reason) if the token is not valid,
+     * so callers can read every claim they need without re-parsing the token.
+     */
+    public Claims parseVerifiedClaims(String authToken) {
         try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(authToken);
-            return true;
+            return jwtParser.parseSignedClaims(authToken).getPayload();
         } catch (SecurityException e) {
             log.warn("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -84,19 +107,17 @@ public class JwtProvider {
             log.warn("Unsupported JWT token: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.warn("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            log.warn("Invalid JWT: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 
     /**
      * Get all claims from the JWT token
      */
     public Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     public String getUserNameFromJwtToken(String token) {
@@ -104,20 +125,56 @@ public class JwtProvider {
     }
 
     public Integer getUserIdFromToken(String token) {
-        return getClaimsFromToken(token).get("userId", Integer.class);
+        return getUserId(getClaimsFromToken(token));
     }
 
-    @SuppressWarnings("unchecked")
     public List<String> getRolesFromToken(String token) {
-        return getClaimsFromToken(token).get("roles", List.class);
+        return getRoles(getClaimsFromToken(token));
     }
 
     /**
      * Check if token has embedded claims (userId, roles)
      */
     public boolean hasEmbeddedClaims(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.get("userId") != null && claims.get("roles") != null;
+        return hasEmbeddedClaims(getClaimsFromToken(token));
+    }
+
+    // --- Accessors on already-verified claims (no signature check) ---
+
+    public Integer getUserId(Claims claims) {
+        return claims.get("userId", Integer.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> getRoles(Claims claims) {
+        return claims.get("roles", List.class);
+    }
+
+    /**
+     * Claims version of the token; 0 for tokens issued before versions existed.
+     */
+    public int getClaimsVersion(Claims claims) {
+        Integer version = claims.get("claimsVersion", Integer.class);
+        return version != null ? version : 0;
+    }
+
+    public Integer getDistrictId(Claims claims) {
+        Object id = getDistrict(claims).get("id");
+        return id != null ? ((Number) id).intValue() : null;
+    }
+
+    public String getDistrictCode(Claims claims) {
+        return (String) getDistrict(claims).get("code");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> getDistrict(Claims claims) {
+        Map<String, Object> district = claims.get("district", Map.class);
+        return district != null ? district : Map.of();
+    }
+
+    public boolean hasEmbeddedClaims(Claims claims) {
+        return claims.get("userId") != null && claims.get("roles") != null && claims.get("district") != null;
     }
 }
 
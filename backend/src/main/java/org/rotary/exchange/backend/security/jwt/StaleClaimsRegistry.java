@@ -0,0 +1,131 @@
+package org.rotary.exchange.backend.security.jwt;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.rotary.exchange.backend.repository.CoordinatorRepository;
+import org.rotary.exchange.backend.repository.CoordinatorRepository.ClaimsVersionView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides whether the claims embedded in an access token are still current.
+ *
+ * Every coordinator has a claims version ({@code coordinator.claims_version}), copied into the
+ * tokens issued for them. Changing what the claims describe (the assigned district, a district's
+ * code) or logging out from all devices bumps the version in the database, and tokens carrying
+ * an older one are refused; the client then refreshes and gets current claims, or has to log in
+ * again if its sessions were revoked.
+ *
+ * To keep authentication free of per-request queries, each node keeps the versions bumped
+ * within the last access-token lifetime in memory. It loads them on startup and polls for new
+ * bumps every {@code jwt.claims-sync-interval-ms}, so a change made on another node is enforced
+ * here after at most one interval; on the node making the change it applies on commit.
+ */
+@Component
+@Slf4j
+public class StaleClaimsRegistry {
+
+    // Tolerates clock differences between nodes and bumps committed after a later one
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(60);
+
+    private final CoordinatorRepository coordinatorRepository;
+    private final Duration retention;
+
+    // coordinator id -> latest claims version and when it was set
+    private final Map<Integer, Bump> bumps = new ConcurrentHashMap<>();
+    private volatile Instant syncedUpTo;
+    // Serializes syncs without pinning a virtual thread to its carrier during the query
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    public StaleClaimsRegistry(CoordinatorRepository coordinatorRepository,
+                               @Value("${jwt.expiration}") int jwtExpiration) {
+        this.coordinatorRepository = coordinatorRepository;
+        this.retention = Duration.ofSeconds(jwtExpiration);
+    }
+
+    @PostConstruct
+    void load() {
+        syncedUpTo = Instant.now().minus(retention);
+        sync();
+    }
+
+    /**
+     * Refuse the coordinator's current access tokens. Joins the transaction making the change;
+     * this node applies it on commit, other nodes on their next sync.
+     */
+    @Transactional
+    public void invalidate(Integer coordinatorId) {
+        coordinatorRepository.bumpClaimsVersion(coordinatorId, Instant.now());
+        applyAfterCommit(coordinatorRepository.findClaimsVersion(coordinatorId));
+    }
+
+    /**
+     * Refuse the current access tokens of every coordinator of a district.
+     */
+    @Transactional
+    public void invalidateDistrict(Integer districtId) {
+        coordinatorRepository.bumpClaimsVersionByDistrict(districtId, Instant.now());
+        applyAfterCommit(coordinatorRepository.findClaimsVersionsByDistrict(districtId));
+    }
+
+    /**
+     * Whether a token carrying this claims version predates a change of the coordinator's claims.
+     */
+    public boolean isStale(Integer coordinatorId, int claimsVersion) {
+        Bump bump = bumps.get(coordinatorId);
+        return bump != null && claimsVersion < bump.version();
+    }
+
+    /**
+     * Pick up versions bumped on any node since the last sync, and forget those older than
+     * the access-token lifetime: every token issued before them has expired.
+     */
+    @Scheduled(fixedDelayString = "${jwt.claims-sync-interval-ms:5000}")
+    public void sync() {
+        syncLock.lock();
+        try {
+            Instant startedAt = Instant.now();
+            apply(coordinatorRepository.findClaimsChangedSince(syncedUpTo.minus(SYNC_OVERLAP)));
+            syncedUpTo = startedAt;
+
+            Instant expired = startedAt.minus(retention).minus(SYNC_OVERLAP);
+            bumps.values().removeIf(bump -> bump.changedAt().isBefore(expired));
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    public int size() {
+        return bumps.size();
+    }
+
+    private void applyAfterCommit(List<ClaimsVersionView> changed) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(changed);
+            }
+        });
+    }
+
+    private void apply(List<ClaimsVersionView> changed) {
+        for (ClaimsVersionView view : changed) {
+            bumps.merge(view.getId(), new Bump(view.getClaimsVersion(), view.getClaimsChangedAt()),
+                    (current, seen) -> seen.version() > current.version() ? seen : current);
+        }
+    }
+
+    private record Bump(int version, Instant changedAt) {
+    }
+}
@@ -0,0 +1,123 @@
+package org.rotary.exchange.backend.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.rotary.exchange.backend.security.service.UserPrinciple;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-memory cache of already-verified access tokens.
+ *
+ * The SPA sends the same bearer token on every call until it expires, so the
+ * filter can skip the HMAC check and JSON parse for tokens it has seen before.
+ * Entries are keyed by a SHA-256 digest of the token (the raw token is never stored),
+ * live until the token's own "exp" and are evicted by Caffeine's size policy when full;
+ * lookups take no global lock. Entries whose claims were invalidated in the
+ * {@link StaleClaimsRegistry} (district change, logout from all devices) are not served.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    @Value("${jwt.cache.enabled:false}")
+    private boolean enabled;
+
+    private final Cache<String, CachedPrincipal> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final StaleClaimsRegistry staleClaims;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize, MeterRegistry meterRegistry,
+                              StaleClaimsRegistry staleClaims) {
+        this.staleClaims = staleClaims;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpires())
+                .build();
+        this.hits = Counter.builder("jwt.cache.requests").tag("result", "hit")
+                .description("Access tokens served from the verified-token cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("jwt.cache.requests").tag("result", "miss")
+                .description("Access tokens that had to be verified")
+                .register(meterRegistry);
+        meterRegistry.gauge("jwt.cache.size", this, VerifiedTokenCache::size);
+    }
+
+    /**
+     * Get the principal for a token verified earlier, or null if unknown, expired or its claims are outdated.
+     */
+    public UserPrinciple get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        String key = digest(token);
+        CachedPrincipal cached = entries.getIfPresent(key);
+        if (cached != null && staleClaims.isStale(cached.principal().getId(), cached.principal().getClaimsVersion())) {
+            entries.invalidate(key);
+            cached = null;
+        }
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.principal();
+    }
+
+    /**
+     * Remember a token whose signature and expiry have just been verified.
+     */
+    public void put(String token, UserPrinciple principal, Date expiration) {
+        if (!enabled || expiration == null) {
+            return;
+        }
+        entries.put(digest(token), new CachedPrincipal(principal, expiration.getTime()));
+    }
+
+    public int size() {
+        return (int) entries.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedPrincipal(UserPrinciple principal, long expiresAtMillis) {
+    }
+
+    // Each entry lives exactly until its token's "exp"
+    private static class UntilTokenExpires implements Expiry<String, CachedPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAtMillis() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
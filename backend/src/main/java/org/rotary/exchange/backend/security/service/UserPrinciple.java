@@ -6,6 +6,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.rotary.exchange.backend.model.Coordinator;
+import org.rotary.exchange.backend.model.District;
 
 import java.util.Collection;
 import java.util.List;
@@ -20,17 +21,28 @@ public class UserPrinciple implements UserDetails {
     private String firstName;
     private String lastName;
 
+    // Assigned district, carried in the access token; null if none is assigned
+    private Integer districtId;
+    private String districtCode;
+
+    // Claims version the token was issued with, see StaleClaimsRegistry
+    private int claimsVersion;
+
     @JsonIgnore
     private String password;
 
     private Collection<? extends GrantedAuthority> authorities;
 
-    public UserPrinciple(Integer id, String email, String firstName, String lastName, 
+    public UserPrinciple(Integer id, String email, String firstName, String lastName,
+                         Integer districtId, String districtCode, int claimsVersion,
                          String password, Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
         this.email = email;
         this.firstName = firstName;
         this.lastName = lastName;
+        this.districtId = districtId;
+        this.districtCode = districtCode;
+        this.claimsVersion = claimsVersion;
         this.password = password;
         this.authorities = authorities;
     }
@@ -39,12 +51,16 @@ public class UserPrinciple implements UserDetails {
         List<GrantedAuthority> authorities = coordinator.getRoles().stream().map(role ->
                 new SimpleGrantedAuthority(role.getName().name())
         ).collect(Collectors.toList());
+        District district = coordinator.getDistrict();
 
         return new UserPrinciple(
                 coordinator.getId(),
                 coordinator.getEmail(),
                 coordinator.getFirstName(),
                 coordinator.getLastName(),
+                district != null ? district.getId() : null,
+                district != null ? district.getCode() : null,
+                coordinator.getClaimsVersion(),
                 coordinator.getPasswordHash(),
                 authorities
         );
@@ -0,0 +1,111 @@
+package org.rotary.exchange.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.rotary.exchange.backend.exception.ResourceNotFoundException;
+import org.rotary.exchange.backend.model.District;
+import org.rotary.exchange.backend.repository.DistrictRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves student access codes to district IDs with a bounded in-memory cache.
+ *
+ * Every anonymous camp request carries the access code of a shared student link, so the
+ * same few codes are looked up over and over. Known codes are cached for
+ * {@code district.access-code-cache.ttl-seconds}, unknown codes for the (shorter)
+ * {@code negative-ttl-seconds} so that guessing does not hit the database each time.
+ * Both caches are bounded Caffeine caches, so lookups take no global lock.
+ * DistrictController invalidates entries whenever a district or its code changes.
+ */
+@Service
+public class AccessCodeResolver {
+
+    private final DistrictRepository districtRepository;
+
+    private final Cache<String, Integer> known;
+    private final Cache<String, Boolean> unknown;
+    // Bumped on every invalidation; lookups that started before it are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public AccessCodeResolver(DistrictRepository districtRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${district.access-code-cache.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${district.access-code-cache.negative-ttl-seconds:30}") long negativeTtlSeconds,
+                              @Value("${district.access-code-cache.max-size:1000}") int maxSize) {
+        this.districtRepository = districtRepository;
+        this.known = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.unknown = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .build();
+        this.hits = Counter.builder("district.access-code.cache").tag("result", "hit")
+                .description("Access codes resolved from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("district.access-code.cache").tag("result", "miss")
+                .description("Access codes looked up in the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the ID of the district with this access code
+     * @throws ResourceNotFoundException if no district has this access code
+     */
+    public Integer resolveDistrictId(String accessCode) {
+        Integer cached = known.getIfPresent(accessCode);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        if (unknown.getIfPresent(accessCode) != null) {
+            hits.increment();
+            throw new ResourceNotFoundException("District", "accessCode", accessCode);
+        }
+
+        misses.increment();
+        long startedAt = generation.get();
+        Integer districtId = districtRepository.findByAccessCode(accessCode)
+                .map(District::getId)
+                .orElse(null);
+
+        Cache<String, ?> target = districtId != null ? known : unknown;
+        if (districtId != null) {
+            known.put(accessCode, districtId);
+        } else {
+            unknown.put(accessCode, Boolean.TRUE);
+        }
+        // An invalidation that ran during the lookup may have missed this entry, so drop it again
+        if (generation.get() != startedAt) {
+            target.invalidate(accessCode);
+        }
+
+        if (districtId == null) {
+            throw new ResourceNotFoundException("District", "accessCode", accessCode);
+        }
+        return districtId;
+    }
+
+    /**
+     * Forget the district's previous access codes and its current one. Call after the district
+     * was created, updated, deleted or given a new access code.
+     */
+    public void invalidate(District district) {
+        generation.incrementAndGet();
+        known.asMap().values().removeIf(districtId -> districtId.equals(district.getId()));
+        if (district.getAccessCode() != null) {
+            known.invalidate(district.getAccessCode());
+            unknown.invalidate(district.getAccessCode());
+        }
+    }
+}
@@ -4,10 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.rotary.exchange.backend.exception.TokenRefreshException;
 import org.rotary.exchange.backend.message.request.LoginRequest;
 import org.rotary.exchange.backend.message.request.RegisterRequest;
 import org.rotary.exchange.backend.message.request.TokenRefreshRequest;
@@ -19,13 +21,13 @@ import org.rotary.exchange.backend.model.Role;
 import org.rotary.exchange.backend.model.RoleName;
 import org.rotary.exchange.backend.repository.CoordinatorRepository;
 import org.rotary.exchange.backend.repository.RoleRepository;
+import org.rotary.exchange.backend.security.LoginThrottle;
 import org.rotary.exchange.backend.security.jwt.JwtProvider;
+import org.rotary.exchange.backend.security.jwt.StaleClaimsRegistry;
 import org.rotary.exchange.backend.security.service.UserPrinciple;
 
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -37,15 +39,31 @@ public class AuthService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final RefreshTokenService refreshTokenService;
+    private final StaleClaimsRegistry staleClaimsRegistry;
+    private final LoginThrottle loginThrottle;
 
-    @Transactional
-    public JwtResponse login(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getEmail(),
-                        loginRequest.getPassword()
-                )
-        );
+    /**
+     * Authenticate and issue tokens. Emails and addresses with too many recent failures are
+     * rejected by the login throttle before the password is checked.
+     * Not transactional: the password check may wait for the hashing pool, and must not hold a
+     * database connection meanwhile. Only issuing the refresh token runs in a transaction.
+     */
+    public JwtResponse login(LoginRequest loginRequest, String clientIp) {
+        loginThrottle.check(loginRequest.getEmail(), clientIp);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getEmail(),
+                            loginRequest.getPassword()
+                    )
+            );
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(loginRequest.getEmail(), clientIp);
+            throw e;
+        }
+        loginThrottle.recordSuccess(loginRequest.getEmail());
         SecurityContextHolder.getContext().setAuthentication(authentication);
         
         UserPrinciple userPrinciple = (UserPrinciple) authentication.getPrincipal();
@@ -57,24 +75,17 @@ public class AuthService {
     }
 
     /**
-     * Refresh the access token using a valid refresh token.
-     * Generates a new token with embedded claims (userId, roles) for performance.
+     * Refresh the access token using a valid refresh token, which is rotated: the response
+     * carries a new refresh token and the presented one stops working.
+     * Generates a new token with embedded claims (userId, roles, district, claims version) for
+     * performance, which also picks up a district assigned since the previous access token was issued.
+     * The coordinator, roles and district come with the token lookup, so this is a single query.
      */
-    @Transactional(readOnly = true)
+    @Transactional(noRollbackFor = TokenRefreshException.class)
     public TokenRefreshResponse refreshToken(TokenRefreshRequest request) {
-        RefreshToken refreshToken = refreshTokenService.verifyRefreshToken(request.getRefreshToken());
+        RefreshToken refreshToken = refreshTokenService.rotateRefreshToken(request.getRefreshToken());
         Coordinator coordinator = refreshToken.getCoordinator();
-        
-        // Get roles for embedded claims
-        List<String> roles = coordinator.getRoles().stream()
-                .map(role -> role.getName().name())
-                .collect(Collectors.toList());
-        
-        String newAccessToken = jwtProvider.generateTokenWithClaims(
-                coordinator.getId(),
-                coordinator.getEmail(),
-                roles
-        );
+        String newAccessToken = jwtProvider.generateToken(UserPrinciple.build(coordinator));
         
         return new TokenRefreshResponse(newAccessToken, refreshToken.getToken());
     }
@@ -89,14 +100,19 @@ public class AuthService {
 
     /**
      * Logout from all devices - revoke all refresh tokens for this coordinator
+     * and refuse their access tokens issued so far, on every node
      */
     @Transactional
     public void logoutAll(Authentication authentication) {
         Coordinator coordinator = getCurrentCoordinator(authentication);
         refreshTokenService.revokeAllTokensForCoordinator(coordinator);
+        staleClaimsRegistry.invalidate(coordinator.getId());
     }
 
-    @Transactional
+    /**
+     * Not transactional, like login: the password is hashed between short queries, without
+     * holding a database connection. The unique email constraint still rejects a concurrent duplicate.
+     */
     public void register(RegisterRequest registerRequest) {
         if (coordinatorRepository.existsByEmail(registerRequest.getEmail())) {
             throw new RuntimeException("Email is already in use!");
@@ -0,0 +1,66 @@
+package org.rotary.exchange.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Storage for uploaded file content, addressed by keys such as {@code images/<name>.png}.
+ *
+ * The driver is chosen with {@code storage.backend}: {@code local} (default) keeps files in
+ * {@code file.upload-dir}, {@code s3} stores them in an S3-compatible bucket so several backend
+ * nodes can share uploads. Keys are validated by FileStorageService before they reach a store.
+ */
+public interface BlobStore {
+
+    /**
+     * New empty temporary file to stream an upload into before it is handed to {@link #put}.
+     */
+    Path createStagingFile() throws IOException;
+
+    /**
+     * Store the content of a staging file under the key, replacing any existing content.
+     * The staging file may be moved; callers only delete it if it is still there.
+     */
+    void put(String key, Path stagingFile, String contentType) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * @return size and modification time, or empty if there is no content under the key
+     */
+    Optional<BlobInfo> stat(String key) throws IOException;
+
+    /**
+     * @throws NoSuchFileException if there is no content under the key
+     */
+    InputStream get(String key) throws IOException;
+
+    /**
+     * @return true if content was deleted, false if there was none
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * File on the local disk holding the content, so it can be served with sendfile and ranges.
+     * Empty for remote stores.
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * Time-limited URL clients can download the content from directly, without the bytes
+     * passing through this application. Empty for stores that cannot issue one.
+     */
+    default Optional<URI> presignedGet(String key, Duration validFor) {
+        return Optional.empty();
+    }
+
+    record BlobInfo(long size, long lastModified) {
+    }
+}
@@ -1,6 +1,7 @@
 package org.rotary.exchange.backend.service;
 
 import lombok.RequiredArgsConstructor;
+import org.rotary.exchange.backend.config.FullTextSearch;
 import org.rotary.exchange.backend.dto.*;
 import org.rotary.exchange.backend.exception.AccessDeniedException;
 import org.rotary.exchange.backend.exception.ResourceNotFoundException;
@@ -8,11 +9,14 @@ import org.rotary.exchange.backend.model.*;
 import org.rotary.exchange.backend.repository.*;
 import org.rotary.exchange.backend.repository.spec.CampSpecifications;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class CampManagementService {
@@ -22,58 +26,90 @@ public class CampManagementService {
     private final CoordinatorRepository coordinatorRepo;
     private final CampDistrictStatusRepository districtStatusRepo;
     private final DistrictStatusService districtStatusService;
+    private final FullTextSearch fullTextSearch;
+    private final FileRegistryService fileRegistry;
+
+    private static final int MAX_SCROLL_SIZE = 100;
 
+    /**
+     * Student camp search. Uses the read-only projection path: only the DTO columns are
+     * selected, in one statement, without loading templates or coordinators as entities.
+     */
     public Page<CampResponseDTO> getPublicCamps(CampSearchCriteria filters, Pageable pageable) {
-        Specification<CampInstance> spec = CampSpecifications.withCriteria(filters, true);
-        return instanceRepo.findAll(spec, pageable)
-                .map(CampResponseDTO::new);
+        Specification<CampInstance> spec = CampSpecifications.withCriteria(filters, true, fullTextSearch.isAvailable());
+        Page<CampResponseDTO> camps = instanceRepo.findCampSummaries(spec, withRelevanceSort(filters, pageable));
+        camps.forEach(this::withImageVariants);
+        return camps;
     }
 
     /**
      * Get camps for coordinator's own camps (excludes ARCHIVED).
      */
     public Page<CampResponseDTO> getCoordinatorCamps(CampSearchCriteria filters, Pageable pageable) {
-        Specification<CampInstance> spec = CampSpecifications.withCriteria(filters, false)
+        Specification<CampInstance> spec = CampSpecifications.withCriteria(filters, false, fullTextSearch.isAvailable())
                 .and((root, query, cb) -> cb.notEqual(root.get("globalStatus"), CampStatus.ARCHIVED));
-        return instanceRepo.findAll(spec, pageable)
-                .map(CampResponseDTO::new);
+        Page<CampResponseDTO> camps = instanceRepo.findCampSummaries(spec, withRelevanceSort(filters, pageable));
+        camps.forEach(this::withImageVariants);
+        return camps;
     }
 
     /**
      * Get all camps available for a specific district with their local status.
-     * Excludes ARCHIVED camps.
+     * Excludes ARCHIVED camps. Camps, templates, coordinators and local statuses are
+     * read in one projected query, so the cost does not grow with the page size.
      */
     public Page<CampWithDistrictStatusDTO> getCampsForDistrict(Integer districtId, String districtCode, Pageable pageable) {
-        // Get camps that have a status entry for this district (excluding ARCHIVED)
-        Specification<CampInstance> spec = (root, query, cb) -> {
-            // Exclude archived camps
-            return cb.notEqual(root.get("globalStatus"), CampStatus.ARCHIVED);
-        };
-        
-        return instanceRepo.findAll(spec, pageable)
-                .map(camp -> {
-                    // Find the local status for this district
-                    CampDistrictStatus status = districtStatusRepo
-                            .findByCampInstanceIdAndDistrictId(camp.getId(), districtId)
-                            .orElse(null);
-                    
-                    CampStatus localStatus = status != null ? status.getLocalStatus() : camp.getGlobalStatus();
-                    return new CampWithDistrictStatusDTO(camp, districtId, districtCode, localStatus);
-                });
+        Page<CampWithDistrictStatusDTO> camps = instanceRepo.findCampsForDistrict(districtId, pageable);
+        camps.forEach(camp -> {
+            camp.setDistrictId(districtId);
+            camp.setDistrictCode(districtCode);
+            withImageVariants(camp);
+        });
+        return camps;
     }
 
-    public CampResponseDTO getCampById(Integer id) {
-        CampInstance camp = instanceRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Camp", "id", id));
-        return new CampResponseDTO(camp);
+    /**
+     * Keyset variant of {@link #getPublicCamps}: ordered by (dateStart, id), continues after the
+     * cursor and skips the count query, so deep pages cost the same as the first one.
+     * The cursor only encodes that position, so relevance ordering is not available here.
+     */
+    public CursorPage<CampResponseDTO> scrollPublicCamps(CampSearchCriteria filters, String cursor, int size) {
+        filters.setSortByRelevance(false);
+        Specification<CampInstance> spec = CampSpecifications.withCriteria(filters, true, fullTextSearch.isAvailable());
+        int limit = scrollSize(size);
+        return toCursorPage(instanceRepo.findCampSummariesAfter(spec, CampCursor.decode(cursor), limit + 1), limit);
+    }
+
+    /**
+     * Keyset variant of {@link #getCoordinatorCamps}.
+     */
+    public CursorPage<CampResponseDTO> scrollCoordinatorCamps(CampSearchCriteria filters, String cursor, int size) {
+        filters.setSortByRelevance(false);
+        Specification<CampInstance> spec = CampSpecifications.withCriteria(filters, false, fullTextSearch.isAvailable())
+                .and((root, query, cb) -> cb.notEqual(root.get("globalStatus"), CampStatus.ARCHIVED));
+        int limit = scrollSize(size);
+        return toCursorPage(instanceRepo.findCampSummariesAfter(spec, CampCursor.decode(cursor), limit + 1), limit);
     }
 
     /**
-     * Get coordinator with their assigned district.
+     * Keyset variant of {@link #getCampsForDistrict}.
      */
-    public Coordinator getCoordinatorWithDistrict(Integer coordinatorId) {
-        return coordinatorRepo.findById(coordinatorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Coordinator", "id", coordinatorId));
+    public CursorPage<CampWithDistrictStatusDTO> scrollCampsForDistrict(Integer districtId, String districtCode,
+                                                                        String cursor, int size) {
+        int limit = scrollSize(size);
+        CursorPage<CampWithDistrictStatusDTO> camps = toCursorPage(
+                instanceRepo.findCampsForDistrictAfter(districtId, CampCursor.decode(cursor), limit + 1), limit);
+        camps.getContent().forEach(camp -> {
+            camp.setDistrictId(districtId);
+            camp.setDistrictCode(districtCode);
+        });
+        return camps;
+    }
+
+    public CampResponseDTO getCampById(Integer id) {
+        CampInstance camp = instanceRepo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Camp", "id", id));
+        return withImageVariants(new CampResponseDTO(camp));
     }
 
     /**
@@ -81,22 +117,15 @@ public class CampManagementService {
      * Ensures the camp is available for the given district before returning details.
      */
     public CampResponseDTO getCampById(Integer id, Integer districtId) {
-        CampInstance camp = instanceRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Camp", "id", id));
-        
-        // Check if the camp is available for this district
-        boolean hasAccess = camp.getDistrictStatuses().stream()
-                .anyMatch(status -> 
-                        status.getDistrict().getId().equals(districtId) &&
-                        (status.getLocalStatus() == CampStatus.OPEN ||
-                         status.getLocalStatus() == CampStatus.ONLY_MALE ||
-                         status.getLocalStatus() == CampStatus.ONLY_FEMALE));
-        
-        if (!hasAccess) {
+        // Check if the camp is available for this district (single index lookup,
+        // instead of loading every district status of the camp)
+        if (!districtStatusRepo.existsByCampInstanceIdAndDistrictIdAndAvailableTrue(id, districtId)) {
             throw new ResourceNotFoundException("Camp", "id", id);
         }
-        
-        return new CampResponseDTO(camp);
+
+        CampInstance camp = instanceRepo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Camp", "id", id));
+        return withImageVariants(new CampResponseDTO(camp));
     }
 
     // --- WRITE OPERATIONS ---
@@ -128,6 +157,7 @@ public class CampManagementService {
             template.setAgeMax(request.getAgeMax());
             template.setImageUrl(request.getImageUrl());
             template = templateRepo.save(template);
+            fileRegistry.acquire(template.getImageUrl());
         }
 
         CampInstance instance = new CampInstance();
@@ -143,7 +173,7 @@ public class CampManagementService {
         instance.setLimitFemale(request.getLimitFemale());
 
         CampInstance saved = instanceRepo.save(instance);
-        return new CampResponseDTO(saved);
+        return withImageVariants(new CampResponseDTO(saved));
     }
 
     @Transactional
@@ -162,7 +192,7 @@ public class CampManagementService {
         if (request.getLimitFemale() != null) camp.setLimitFemale(request.getLimitFemale());
 
         CampInstance saved = instanceRepo.save(camp);
-        return new CampResponseDTO(saved);
+        return withImageVariants(new CampResponseDTO(saved));
     }
 
     @Transactional
@@ -178,7 +208,7 @@ public class CampManagementService {
 
         districtStatusService.recalculateAllLocalStatuses(id, newStatus);
 
-        return new CampResponseDTO(saved);
+        return withImageVariants(new CampResponseDTO(saved));
     }
 
     @Transactional
@@ -197,6 +227,42 @@ public class CampManagementService {
 
     // --- HELPER METHODS ---
 
+    private int scrollSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+    }
+
+    /**
+     * One extra row is fetched to learn whether another slice follows without counting.
+     */
+    private <T extends CampResponseDTO> CursorPage<T> toCursorPage(List<T> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? rows.subList(0, limit) : rows;
+        content.forEach(this::withImageVariants);
+        String nextCursor = hasNext ? CampCursor.after(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    /**
+     * Resized copies of the camp image (generated on first request by ImageVariantService).
+     */
+    private <T extends CampResponseDTO> T withImageVariants(T camp) {
+        camp.setThumbnailUrl(ImageVariantService.variantUrl(camp.getImageUrl(), ImageVariantService.Variant.THUMB));
+        camp.setCardImageUrl(ImageVariantService.variantUrl(camp.getImageUrl(), ImageVariantService.Variant.CARD));
+        return camp;
+    }
+
+    /**
+     * "sort=relevance" is not an entity property: it asks the specification to order
+     * full-text matches by rank, so it is removed from the pageable.
+     */
+    private Pageable withRelevanceSort(CampSearchCriteria filters, Pageable pageable) {
+        if (pageable.getSort().getOrderFor("relevance") == null) {
+            return pageable;
+        }
+        filters.setSortByRelevance(fullTextSearch.isAvailable());
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : Pageable.unpaged();
+    }
+
     private void verifyOwnershipOrAdmin(CampInstance camp, Integer coordinatorId, boolean isAdmin) {
         if (isAdmin) {
             return; // Admins can do anything
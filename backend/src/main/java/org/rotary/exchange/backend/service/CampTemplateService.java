@@ -22,6 +22,7 @@ public class CampTemplateService {
     private final CampTemplateRepository templateRepository;
     private final CoordinatorRepository coordinatorRepository;
     private final FileCleanupService fileCleanupService;
+    private final FileRegistryService fileRegistry;
 
     /**
      * Get templates for a coordinator (only their own templates).
@@ -80,6 +81,8 @@ public class CampTemplateService {
         template.setFlyerPdfUrl(request.getFlyerPdfUrl());
 
         CampTemplate saved = templateRepository.save(template);
+        fileRegistry.acquire(saved.getImageUrl());
+        fileRegistry.acquire(saved.getFlyerPdfUrl());
         return new CampTemplateDTO(saved);
     }
 
@@ -98,6 +101,8 @@ public class CampTemplateService {
         template.setFlyerPdfUrl(request.getFlyerPdfUrl());
 
         CampTemplate saved = templateRepository.save(template);
+        fileRegistry.acquire(saved.getImageUrl());
+        fileRegistry.acquire(saved.getFlyerPdfUrl());
         return new CampTemplateDTO(saved);
     }
 
@@ -126,9 +131,11 @@ public class CampTemplateService {
 
         // Cleanup old files if they were replaced
         if (request.getImageUrl() != null && !request.getImageUrl().equals(oldImageUrl)) {
+            fileRegistry.replace(oldImageUrl, request.getImageUrl());
             fileCleanupService.scheduleCleanup(oldImageUrl, FileCleanupService.FileType.IMAGE);
         }
         if (request.getFlyerPdfUrl() != null && !request.getFlyerPdfUrl().equals(oldFlyerUrl)) {
+            fileRegistry.replace(oldFlyerUrl, request.getFlyerPdfUrl());
             fileCleanupService.scheduleCleanup(oldFlyerUrl, FileCleanupService.FileType.FLYER);
         }
 
@@ -155,9 +162,11 @@ public class CampTemplateService {
 
         // Cleanup old files if they were replaced
         if (request.getImageUrl() != null && !request.getImageUrl().equals(oldImageUrl)) {
+            fileRegistry.replace(oldImageUrl, request.getImageUrl());
             fileCleanupService.scheduleCleanup(oldImageUrl, FileCleanupService.FileType.IMAGE);
         }
         if (request.getFlyerPdfUrl() != null && !request.getFlyerPdfUrl().equals(oldFlyerUrl)) {
+            fileRegistry.replace(oldFlyerUrl, request.getFlyerPdfUrl());
             fileCleanupService.scheduleCleanup(oldFlyerUrl, FileCleanupService.FileType.FLYER);
         }
 
@@ -8,6 +8,7 @@ import org.rotary.exchange.backend.model.Coordinator;
 import org.rotary.exchange.backend.model.District;
 import org.rotary.exchange.backend.repository.CoordinatorRepository;
 import org.rotary.exchange.backend.repository.DistrictRepository;
+import org.rotary.exchange.backend.security.jwt.StaleClaimsRegistry;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -24,6 +25,8 @@ public class CoordinatorService {
     private final DistrictRepository districtRepository;
     private final PasswordEncoder passwordEncoder;
     private final FileCleanupService fileCleanupService;
+    private final FileRegistryService fileRegistry;
+    private final StaleClaimsRegistry staleClaimsRegistry;
 
     public CoordinatorDTO getCoordinatorById(Integer id) {
         Coordinator coordinator = coordinatorRepository.findById(id)
@@ -50,6 +53,7 @@ public class CoordinatorService {
         // Cleanup old profile picture if it was replaced
         if (request.getProfilePictureUrl() != null && 
             !request.getProfilePictureUrl().equals(oldProfilePictureUrl)) {
+            fileRegistry.replace(oldProfilePictureUrl, request.getProfilePictureUrl());
             fileCleanupService.scheduleCleanup(oldProfilePictureUrl, FileCleanupService.FileType.IMAGE);
         }
 
@@ -68,6 +72,7 @@ public class CoordinatorService {
         // Cleanup old profile picture if it was replaced
         if (request.getProfilePictureUrl() != null && 
             !request.getProfilePictureUrl().equals(oldProfilePictureUrl)) {
+            fileRegistry.replace(oldProfilePictureUrl, request.getProfilePictureUrl());
             fileCleanupService.scheduleCleanup(oldProfilePictureUrl, FileCleanupService.FileType.IMAGE);
         }
 
@@ -88,6 +93,10 @@ public class CoordinatorService {
         coordinatorRepository.save(coordinator);
     }
 
+    /**
+     * Assign a coordinator to a district. A change invalidates the coordinator's current access
+     * tokens (they carry the old district), so the client has to refresh them.
+     */
     @Transactional
     public CoordinatorDTO assignDistrict(Integer coordinatorId, Integer districtId) {
         Coordinator coordinator = coordinatorRepository.findById(coordinatorId)
@@ -96,8 +105,12 @@ public class CoordinatorService {
         District district = districtRepository.findById(districtId)
                 .orElseThrow(() -> new ResourceNotFoundException("District", "id", districtId));
 
+        boolean changed = coordinator.getDistrict() == null || !coordinator.getDistrict().getId().equals(districtId);
         coordinator.setDistrict(district);
         Coordinator saved = coordinatorRepository.save(coordinator);
+        if (changed) {
+            staleClaimsRegistry.invalidate(coordinatorId);
+        }
         return new CoordinatorDTO(saved);
     }
 
@@ -1,13 +1,15 @@
 package org.rotary.exchange.backend.service;
 
 import lombok.RequiredArgsConstructor;
+import org.rotary.exchange.backend.dto.BatchStatusUpdateRequest;
+import org.rotary.exchange.backend.dto.BatchStatusUpdateResult;
 import org.rotary.exchange.backend.exception.ResourceNotFoundException;
 import org.rotary.exchange.backend.model.*;
 import org.rotary.exchange.backend.repository.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
@@ -38,22 +40,115 @@ public class DistrictStatusService {
         return statusRepo.save(ds);
     }
 
+    /**
+     * Re-applies the intersection rule to every district status of a camp after its global
+     * status changed. The rule is turned into a transition table for this global status and
+     * executed as a single set-based UPDATE, so the cost does not grow with the number of districts.
+     *
+     * @return number of district statuses that changed
+     */
     @Transactional
-    public void recalculateAllLocalStatuses(Integer campId, CampStatus newGlobalStatus) {
-        List<CampDistrictStatus> allStatuses = statusRepo.findByCampInstanceId(campId);
-
-        for (CampDistrictStatus ds : allStatuses) {
-            CampStatus currentLocal = ds.getLocalStatus();
+    public int recalculateAllLocalStatuses(Integer campId, CampStatus newGlobalStatus) {
+        Map<CampStatus, CampStatus> transitions = new EnumMap<>(CampStatus.class);
+        for (CampStatus currentLocal : CampStatus.values()) {
             CampStatus calculated = calculateIntersection(newGlobalStatus, currentLocal);
-
             if (calculated != currentLocal) {
-                ds.setLocalStatus(calculated);
+                transitions.put(currentLocal, calculated);
             }
         }
-        
-        if (!allStatuses.isEmpty()) {
-            statusRepo.saveAll(allStatuses);
+
+        return statusRepo.applyStatusTransitions(campId, transitions, calculateIntersection(newGlobalStatus, null));
+    }
+
+    /**
+     * Applies many local status changes in one transaction. Camps, districts and existing status
+     * rows are loaded with one query each, every item is validated in a single pass, and valid
+     * items are written with one UPDATE per target status plus inserts for missing rows.
+     * Invalid items are reported in the result and do not prevent the others from being applied.
+     *
+     * @param onlyDistrictId if not null, items for any other district are rejected (coordinators)
+     */
+    @Transactional
+    public BatchStatusUpdateResult updateLocalStatusesBatch(List<BatchStatusUpdateRequest.Item> items,
+                                                            Integer onlyDistrictId) {
+        Set<Integer> campIds = new HashSet<>();
+        Set<Integer> districtIds = new HashSet<>();
+        for (BatchStatusUpdateRequest.Item item : items) {
+            if (item.getCampId() != null) campIds.add(item.getCampId());
+            if (item.getDistrictId() != null) districtIds.add(item.getDistrictId());
+        }
+
+        Map<Integer, CampStatus> globalStatuses = new HashMap<>();
+        Set<Integer> existingDistricts = new HashSet<>();
+        Map<StatusKey, Integer> existingStatusIds = new HashMap<>();
+        if (!campIds.isEmpty() && !districtIds.isEmpty()) {
+            instanceRepo.findGlobalStatuses(campIds)
+                    .forEach(camp -> globalStatuses.put(camp.getId(), camp.getGlobalStatus()));
+            existingDistricts.addAll(districtRepo.findExistingIds(districtIds));
+            statusRepo.findKeys(campIds, districtIds)
+                    .forEach(key -> existingStatusIds.put(new StatusKey(key.getCampId(), key.getDistrictId()), key.getId()));
+        }
+
+        Map<CampStatus, List<Integer>> updatesByStatus = new EnumMap<>(CampStatus.class);
+        List<CampDistrictStatus> inserts = new ArrayList<>();
+        Set<StatusKey> seen = new HashSet<>();
+        List<BatchStatusUpdateResult.ItemResult> results = new ArrayList<>(items.size());
+        int updated = 0;
+
+        for (BatchStatusUpdateRequest.Item item : items) {
+            StatusKey key = new StatusKey(item.getCampId(), item.getDistrictId());
+            String error = validate(item, key, onlyDistrictId, globalStatuses, existingDistricts, seen);
+            results.add(new BatchStatusUpdateResult.ItemResult(
+                    item.getCampId(), item.getDistrictId(), item.getStatus(), error == null, error));
+            if (error != null) {
+                continue;
+            }
+
+            seen.add(key);
+            updated++;
+            Integer statusId = existingStatusIds.get(key);
+            if (statusId != null) {
+                updatesByStatus.computeIfAbsent(item.getStatus(), status -> new ArrayList<>()).add(statusId);
+            } else {
+                CampDistrictStatus ds = new CampDistrictStatus();
+                ds.setCampInstance(instanceRepo.getReferenceById(item.getCampId()));
+                ds.setDistrict(districtRepo.getReferenceById(item.getDistrictId()));
+                ds.setLocalStatus(item.getStatus());
+                inserts.add(ds);
+            }
         }
+
+        updatesByStatus.forEach((status, ids) -> statusRepo.updateLocalStatus(ids, status, status.isAvailable()));
+        if (!inserts.isEmpty()) {
+            statusRepo.saveAll(inserts);
+        }
+
+        return new BatchStatusUpdateResult(updated, items.size() - updated, results);
+    }
+
+    private String validate(BatchStatusUpdateRequest.Item item, StatusKey key, Integer onlyDistrictId,
+                            Map<Integer, CampStatus> globalStatuses, Set<Integer> existingDistricts,
+                            Set<StatusKey> seen) {
+        if (item.getCampId() == null || item.getDistrictId() == null || item.getStatus() == null) {
+            return "campId, districtId and status are required";
+        }
+        if (onlyDistrictId != null && !onlyDistrictId.equals(item.getDistrictId())) {
+            return "You can only update status for your own district";
+        }
+        if (!globalStatuses.containsKey(item.getCampId())) {
+            return "Camp with id " + item.getCampId() + " not found";
+        }
+        if (!existingDistricts.contains(item.getDistrictId())) {
+            return "District with id " + item.getDistrictId() + " not found";
+        }
+        CampStatus globalStatus = globalStatuses.get(item.getCampId());
+        if (!isCompatible(globalStatus, item.getStatus())) {
+            return "Cannot set status " + item.getStatus() + " because Global Status is " + globalStatus;
+        }
+        if (seen.contains(key)) {
+            return "Duplicate camp and district in batch";
+        }
+        return null;
     }
 
     private CampDistrictStatus createDefaultStatus(Integer campId, Integer districtId) {
@@ -72,11 +167,14 @@ public class DistrictStatusService {
         return statusRepo.save(ds);
     }
 
+    private record StatusKey(Integer campId, Integer districtId) {
+    }
+
     private boolean isCompatible(CampStatus global, CampStatus local) {
         return calculateIntersection(global, local) == local;
     }
 
-    private CampStatus calculateIntersection(CampStatus global, CampStatus local) {
+    static CampStatus calculateIntersection(CampStatus global, CampStatus local) {
         // Handle ARCHIVED and CLOSED
         if (global == CampStatus.ARCHIVED || global == CampStatus.CLOSED) {
             return global;
@@ -91,11 +189,11 @@ public class DistrictStatusService {
         return CampStatus.CLOSED;
     }
 
-    private boolean allowsMale(CampStatus s) {
+    private static boolean allowsMale(CampStatus s) {
         return s == CampStatus.OPEN || s == CampStatus.ONLY_MALE;
     }
 
-    private boolean allowsFemale(CampStatus s) {
+    private static boolean allowsFemale(CampStatus s) {
         return s == CampStatus.OPEN || s == CampStatus.ONLY_FEMALE;
     }
 }
@@ -2,9 +2,14 @@ package org.rotary.exchange.backend.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.rotary.exchange.backend.model.FileCleanupTask;
 import org.rotary.exchange.backend.repository.CampTemplateRepository;
 import org.rotary.exchange.backend.repository.CoordinatorRepository;
+import org.rotary.exchange.backend.repository.FileCleanupTaskRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 /**
  * Service responsible for cleaning up unused files.
@@ -19,6 +24,8 @@ public class FileCleanupService {
     private final FileStorageService fileStorageService;
     private final CampTemplateRepository campTemplateRepository;
     private final CoordinatorRepository coordinatorRepository;
+    private final FileCleanupTaskRepository cleanupTaskRepository;
+    private final FileRegistryService fileRegistry;
 
     /**
      * Attempts to delete an image file if it's not used anywhere else.
@@ -27,11 +34,18 @@ public class FileCleanupService {
      * @param imageUrl The URL of the image to potentially delete
      * @return true if the file was deleted, false if it's still in use or doesn't exist
      */
+    @Transactional
     public boolean cleanupImageIfUnused(String imageUrl) {
         if (imageUrl == null || imageUrl.isBlank()) {
             return false;
         }
 
+        // Tracked files: the reference count decides, no table scans needed
+        Optional<Boolean> orphaned = fileRegistry.isOrphaned(imageUrl);
+        if (orphaned.isPresent()) {
+            return deleteIfOrphaned(imageUrl, orphaned.get());
+        }
+
         // Check if this image is used by any CampTemplate
         if (campTemplateRepository.existsByImageUrl(imageUrl)) {
             log.debug("Image {} is still used by a CampTemplate, skipping cleanup", imageUrl);
@@ -59,11 +73,17 @@ public class FileCleanupService {
      * @param flyerUrl The URL of the flyer to potentially delete
      * @return true if the file was deleted, false if it's still in use or doesn't exist
      */
+    @Transactional
     public boolean cleanupFlyerIfUnused(String flyerUrl) {
         if (flyerUrl == null || flyerUrl.isBlank()) {
             return false;
         }
 
+        Optional<Boolean> orphaned = fileRegistry.isOrphaned(flyerUrl);
+        if (orphaned.isPresent()) {
+            return deleteIfOrphaned(flyerUrl, orphaned.get());
+        }
+
         // Check if this flyer is used by any CampTemplate
         if (campTemplateRepository.existsByFlyerPdfUrl(flyerUrl)) {
             log.debug("Flyer {} is still used by a CampTemplate, skipping cleanup", flyerUrl);
@@ -82,23 +102,59 @@ public class FileCleanupService {
      * Schedule cleanup for an old file URL after it has been replaced.
      * This should be called AFTER the database has been updated with the new URL.
      *
+     * Releases the caller's reference in the file registry. The cleanup is queued in the
+     * caller's transaction and carried out by FileCleanupWorker after commit, so the request
+     * does not wait for the usage checks and the delete.
+     *
      * @param oldUrl The old URL that was replaced
      * @param fileType The type of file ("image" or "flyer")
      */
+    @Transactional
     public void scheduleCleanup(String oldUrl, FileType fileType) {
         if (oldUrl == null || oldUrl.isBlank()) {
             return;
         }
 
-        // Run cleanup (in a real production app, this could be async or queued)
-        switch (fileType) {
-            case IMAGE -> cleanupImageIfUnused(oldUrl);
-            case FLYER -> cleanupFlyerIfUnused(oldUrl);
+        fileRegistry.release(oldUrl);
+        cleanupTaskRepository.save(new FileCleanupTask(oldUrl, fileType));
+    }
+
+    /**
+     * Delete the file if nothing references it anymore. Used by the cleanup worker.
+     *
+     * @return true if the file was deleted
+     */
+    @Transactional
+    public boolean cleanupIfUnused(String url, FileType fileType) {
+        return switch (fileType) {
+            case IMAGE -> cleanupImageIfUnused(url);
+            case FLYER -> cleanupFlyerIfUnused(url);
+        };
+    }
+
+    /**
+     * Runs while the registry entry is locked by the orphan check: an upload of the same
+     * content waits until the file is deleted and the entry forgotten, then stores it again.
+     */
+    private boolean deleteIfOrphaned(String url, boolean orphaned) {
+        if (!orphaned) {
+            log.debug("File {} is still referenced or was just reused, skipping cleanup", url);
+            return false;
         }
+        boolean deleted = fileStorageService.deleteFile(url);
+        fileRegistry.forget(url);
+        if (deleted) {
+            log.info("Cleaned up unused file: {}", url);
+        }
+        return deleted;
     }
 
     public enum FileType {
         IMAGE,
-        FLYER
+        FLYER;
+
+        public static FileType fromUrl(String url) {
+            return url.startsWith("/uploads/flyers/") ? FLYER : IMAGE;
+        }
     }
 }
@@ -0,0 +1,144 @@
+package org.rotary.exchange.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.rotary.exchange.backend.model.FileCleanupTask;
+import org.rotary.exchange.backend.repository.FileCleanupTaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the file cleanup queue in the background.
+ *
+ * Tasks are processed in batches. A task is done once the file was deleted, is still in use
+ * or no longer exists. Failures (e.g. I/O errors) are retried with exponential backoff up to
+ * {@code file.cleanup.max-attempts} times.
+ *
+ * With several instances each batch is claimed with {@code SELECT ... FOR UPDATE SKIP LOCKED}
+ * and leased by moving its tasks' next attempt {@code file.cleanup.lease-seconds} ahead, so the
+ * other instances neither wait for nor pick up tasks being processed. Tasks of an instance that
+ * dies mid-batch become due again when the lease runs out.
+ */
+@Component
+@Slf4j
+public class FileCleanupWorker {
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final FileCleanupTaskRepository taskRepository;
+    private final FileCleanupService fileCleanupService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${file.cleanup.batch-size:50}")
+    private int batchSize;
+
+    @Value("${file.cleanup.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${file.cleanup.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    @Value("${file.cleanup.lease-seconds:300}")
+    private long leaseSeconds;
+
+    private final Counter deleted;
+    private final Counter skipped;
+    private final Counter retried;
+    private final Counter failed;
+    private final AtomicLong pending = new AtomicLong();
+
+    public FileCleanupWorker(FileCleanupTaskRepository taskRepository,
+                             FileCleanupService fileCleanupService,
+                             MeterRegistry meterRegistry,
+                             TransactionTemplate transactionTemplate) {
+        this.taskRepository = taskRepository;
+        this.fileCleanupService = fileCleanupService;
+        this.transactionTemplate = transactionTemplate;
+        this.deleted = counter(meterRegistry, "deleted", "Unused files deleted");
+        this.skipped = counter(meterRegistry, "skipped", "Files still in use or already gone");
+        this.retried = counter(meterRegistry, "retried", "Cleanup attempts that failed and were rescheduled");
+        this.failed = counter(meterRegistry, "failed", "Cleanups given up after the maximum number of attempts");
+        meterRegistry.gauge("file.cleanup.queue.size", pending);
+    }
+
+    @Scheduled(fixedDelayString = "${file.cleanup.poll-interval-ms:10000}")
+    public void drain() {
+        List<FileCleanupTask> batch;
+        do {
+            batch = claimBatch();
+            List<Integer> done = new ArrayList<>();
+            for (FileCleanupTask task : batch) {
+                if (process(task)) {
+                    done.add(task.getId());
+                }
+            }
+            if (!done.isEmpty()) {
+                taskRepository.deleteAllByIdInBatch(done);
+            }
+        } while (batch.size() == batchSize);
+
+        pending.set(taskRepository.count());
+    }
+
+    /**
+     * Lock a batch of due tasks and lease them to this instance. The locks are only held
+     * while the lease is written, not while the files are processed.
+     */
+    private List<FileCleanupTask> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<FileCleanupTask> batch = taskRepository.claimDue(now, PageRequest.of(0, batchSize));
+            Instant leaseUntil = now.plusSeconds(leaseSeconds);
+            batch.forEach(task -> task.setNextAttemptAt(leaseUntil));
+            return batch;
+        });
+    }
+
+    /**
+     * @return true if the task is finished and can be removed from the queue
+     */
+    private boolean process(FileCleanupTask task) {
+        try {
+            if (fileCleanupService.cleanupIfUnused(task.getUrl(), task.getFileType())) {
+                deleted.increment();
+            } else {
+                skipped.increment();
+            }
+            return true;
+        } catch (RuntimeException e) {
+            task.setAttempts(task.getAttempts() + 1);
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            task.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+
+            if (task.getAttempts() >= maxAttempts) {
+                log.error("Giving up cleanup of {} after {} attempts: {}", task.getUrl(), task.getAttempts(), error);
+                failed.increment();
+                return true;
+            }
+
+            Duration backoff = Duration.ofSeconds(retryDelaySeconds).multipliedBy(1L << Math.min(task.getAttempts() - 1, 20));
+            task.setNextAttemptAt(Instant.now().plus(backoff.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff));
+            taskRepository.save(task);
+            log.warn("Cleanup of {} failed (attempt {}), retrying at {}: {}",
+                    task.getUrl(), task.getAttempts(), task.getNextAttemptAt(), error);
+            retried.increment();
+            return false;
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String result, String description) {
+        return Counter.builder("file.cleanup.tasks").tag("result", result)
+                .description(description)
+                .register(registry);
+    }
+}
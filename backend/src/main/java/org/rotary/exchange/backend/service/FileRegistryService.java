@@ -0,0 +1,215 @@
+package org.rotary.exchange.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.rotary.exchange.backend.model.FileCleanupTask;
+import org.rotary.exchange.backend.model.StoredFile;
+import org.rotary.exchange.backend.repository.FileCleanupTaskRepository;
+import org.rotary.exchange.backend.repository.StoredFileRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a reference count per uploaded file so that cleanup can tell whether a file is
+ * orphaned with a single lookup instead of scanning templates and coordinators by URL.
+ *
+ * Services call {@link #acquire} when an entity starts using a URL and FileCleanupService
+ * releases it when the URL is replaced or the entity deleted. URLs that are not in the
+ * registry (e.g. uploaded before it existed) are simply not tracked until the nightly
+ * reconciliation adds them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FileRegistryService {
+
+    private final StoredFileRepository storedFileRepository;
+    private final FileCleanupTaskRepository cleanupTaskRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${file.registry.orphan-grace-hours:24}")
+    private long orphanGraceHours;
+
+    @Value("${file.registry.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    @Value("${file.dedup.reuse-grace-minutes:60}")
+    private long reuseGraceMinutes;
+
+    /**
+     * Register a freshly stored file. It has no references until an entity acquires it.
+     */
+    @Transactional
+    public void register(String url) {
+        storedFileRepository.save(new StoredFile(url, 0));
+    }
+
+    /**
+     * Register a content-addressed upload. If the same content was stored before, the existing
+     * entry is reused and only its upload time is refreshed.
+     *
+     * Concurrent first uploads of the same content both try to insert the entry; the one that
+     * loses on the unique URL updates the winner's entry instead. While a cleanup holds the
+     * entry's lock (see {@link #isOrphaned}) this waits, and afterwards registers the file anew.
+     */
+    public void registerContent(String url, String contentHash) {
+        Instant now = Instant.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (storedFileRepository.markUploaded(url, contentHash, now) == 0) {
+                    StoredFile file = new StoredFile(url, 0);
+                    file.setContentHash(contentHash);
+                    storedFileRepository.saveAndFlush(file);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Concurrent upload registered {} first", url);
+            transactionTemplate.executeWithoutResult(status -> storedFileRepository.markUploaded(url, contentHash, now));
+        }
+    }
+
+    @Transactional
+    public void acquire(String url) {
+        if (url != null && !url.isBlank()) {
+            storedFileRepository.incrementRefCount(url);
+        }
+    }
+
+    @Transactional
+    public void release(String url) {
+        if (url != null && !url.isBlank()) {
+            storedFileRepository.decrementRefCount(url);
+        }
+    }
+
+    /**
+     * An entity switched from {@code oldUrl} to {@code newUrl}: acquire the new file only.
+     * The old one is released by FileCleanupService.scheduleCleanup.
+     */
+    @Transactional
+    public void replace(String oldUrl, String newUrl) {
+        if (!Objects.equals(oldUrl, newUrl)) {
+            acquire(newUrl);
+        }
+    }
+
+    /**
+     * Whether a tracked file can be deleted: no references, and for content-addressed files
+     * not handed out by an upload within the reuse grace period (the uploader may be about to
+     * save a form that references it).
+     *
+     * The entry stays locked until the caller's transaction ends, so the file can be deleted
+     * and {@link #forget forgotten} before an upload of the same content registers it again.
+     *
+     * @return empty if the file is not tracked
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Boolean> isOrphaned(String url) {
+        Instant reuseLimit = Instant.now().minus(Duration.ofMinutes(reuseGraceMinutes));
+        return storedFileRepository.findByUrlForUpdate(url).map(file -> file.getRefCount() == 0
+                && (file.getContentHash() == null || file.getLastUploadedAt() == null
+                    || file.getLastUploadedAt().isBefore(reuseLimit)));
+    }
+
+    @Transactional
+    public void forget(String url) {
+        storedFileRepository.deleteByUrl(url);
+    }
+
+    /**
+     * Recount references from the entities, fix drifted counters, register referenced files
+     * that are missing from the registry and queue files nobody has referenced for longer
+     * than the grace period (e.g. uploads of abandoned forms).
+     *
+     * The registry is walked in batches of {@code file.registry.reconcile-batch-size}, each in
+     * its own transaction, so neither the persistence context nor the locks on fixed rows grow
+     * with the number of files. A batch locks its entries before counting their references:
+     * an acquire or release of those files either committed before and is counted, or waits
+     * and applies on top of the fixed counter.
+     */
+    @Scheduled(cron = "${file.registry.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        // Registered with no references, the walk below counts them like every other entry
+        int registered = 0;
+        for (String url : findUnregisteredUrls()) {
+            try {
+                storedFileRepository.save(new StoredFile(url, 0));
+                registered++;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("{} was registered concurrently", url);
+            }
+        }
+
+        AtomicInteger drifted = new AtomicInteger();
+        Integer lastId = 0;
+        List<StoredFile> batch;
+        do {
+            Integer afterId = lastId;
+            batch = transactionTemplate.execute(status -> {
+                List<StoredFile> files = storedFileRepository.findBatchAfterForUpdate(afterId, PageRequest.of(0, reconcileBatchSize));
+                Map<String, Long> actual = countReferences(files.stream().map(StoredFile::getUrl).toList());
+                for (StoredFile file : files) {
+                    int expected = actual.getOrDefault(file.getUrl(), 0L).intValue();
+                    if (file.getRefCount() != expected) {
+                        log.warn("Reference count of {} drifted: {} recorded, {} actual", file.getUrl(), file.getRefCount(), expected);
+                        file.setRefCount(expected);
+                        drifted.incrementAndGet();
+                    }
+                }
+                return files;
+            });
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == reconcileBatchSize);
+
+        Instant graceLimit = Instant.now().minus(Duration.ofHours(orphanGraceHours));
+        int orphans = 0;
+        for (String url : storedFileRepository.findUnreferencedUrls(graceLimit)) {
+            if (!cleanupTaskRepository.existsByUrl(url)) {
+                cleanupTaskRepository.save(new FileCleanupTask(url, FileCleanupService.FileType.fromUrl(url)));
+                orphans++;
+            }
+        }
+
+        log.info("File registry reconciled: {} counters fixed, {} files registered, {} orphans queued.",
+                drifted.get(), registered, orphans);
+    }
+
+    private Set<String> findUnregisteredUrls() {
+        Set<String> urls = new LinkedHashSet<>();
+        urls.addAll(storedFileRepository.findUnregisteredTemplateImageUrls());
+        urls.addAll(storedFileRepository.findUnregisteredTemplateFlyerUrls());
+        urls.addAll(storedFileRepository.findUnregisteredProfilePictureUrls());
+        return urls;
+    }
+
+    private Map<String, Long> countReferences(List<String> urls) {
+        Map<String, Long> actual = new HashMap<>();
+        if (urls.isEmpty()) {
+            return actual;
+        }
+        List.of(storedFileRepository.countTemplateImageReferences(urls),
+                storedFileRepository.countTemplateFlyerReferences(urls),
+                storedFileRepository.countProfilePictureReferences(urls))
+                .forEach(counts -> counts.forEach(count -> actual.merge(count.getUrl(), count.getCount(), Long::sum)));
+        return actual;
+    }
+}
@@ -1,28 +1,38 @@
 package org.rotary.exchange.backend.service;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import jakarta.annotation.PostConstruct;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
+@RequiredArgsConstructor
 public class FileStorageService {
 
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    private final FileRegistryService fileRegistry;
+    private final BlobStore blobStore;
 
     @Value("${file.max-size:10485760}")  // 10MB default
     private long maxFileSize;
 
+    @Value("${file.dedup.enabled:false}")
+    private boolean dedupEnabled;
+
     private static final Set<String> ALLOWED_IMAGE_TYPES = Set.of(
             "image/jpeg", "image/png", "image/gif", "image/webp"
     );
@@ -31,19 +41,25 @@ public class FileStorageService {
             "application/pdf"
     );
 
-    private Path uploadPath;
+    // Stored extension per detected type
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/gif", ".gif",
+            "image/webp", ".webp",
+            "application/pdf", ".pdf"
+    );
 
-    @PostConstruct
-    public void init() {
-        uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
-        try {
-            Files.createDirectories(uploadPath);
-            Files.createDirectories(uploadPath.resolve("images"));
-            Files.createDirectories(uploadPath.resolve("flyers"));
-        } catch (IOException e) {
-            throw new RuntimeException("Could not create upload directories", e);
-        }
-    }
+    // Enough leading bytes to recognise every allowed type
+    private static final int SNIFF_LENGTH = 12;
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    // Stored names are random UUIDs or content digests: the bytes behind a URL never change
+    private static final Pattern IMMUTABLE_NAME = Pattern.compile(
+            "^(\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}|\\p{XDigit}{64})(\\.\\w+)?$");
+
+    // Image variants are cached under variants/<variant>/<base name><one of these>
+    static final List<String> VARIANT_EXTENSIONS = List.of(".jpg", ".png");
 
     /**
      * Upload an image file (JPEG, PNG, GIF, WebP)
@@ -51,8 +67,8 @@ public class FileStorageService {
      * @return The relative URL path to access the file
      */
     public String uploadImage(MultipartFile file) {
-        validateFile(file, ALLOWED_IMAGE_TYPES);
-        return storeFile(file, "images");
+        validateFile(file);
+        return storeFile(file, "images", ALLOWED_IMAGE_TYPES);
     }
 
     /**
@@ -61,8 +77,30 @@ public class FileStorageService {
      * @return The relative URL path to access the file
      */
     public String uploadFlyer(MultipartFile file) {
-        validateFile(file, ALLOWED_PDF_TYPES);
-        return storeFile(file, "flyers");
+        validateFile(file);
+        return storeFile(file, "flyers", ALLOWED_PDF_TYPES);
+    }
+
+    /**
+     * Upload an image sent as the raw request body, without multipart buffering.
+     * @param content The request body
+     * @param declaredLength The Content-Length of the request, or -1 if unknown
+     * @return The relative URL path to access the file
+     */
+    public String uploadImage(InputStream content, long declaredLength) {
+        checkDeclaredLength(declaredLength);
+        return store(content, "images", ALLOWED_IMAGE_TYPES);
+    }
+
+    /**
+     * Upload a PDF flyer sent as the raw request body, without multipart buffering.
+     * @param content The request body
+     * @param declaredLength The Content-Length of the request, or -1 if unknown
+     * @return The relative URL path to access the file
+     */
+    public String uploadFlyer(InputStream content, long declaredLength) {
+        checkDeclaredLength(declaredLength);
+        return store(content, "flyers", ALLOWED_PDF_TYPES);
     }
 
     /**
@@ -75,34 +113,24 @@ public class FileStorageService {
             return false;
         }
 
+        String key = toKey(fileUrl);
         try {
-            // Remove leading /uploads/ or /files/ if present
-            String relativePath = fileUrl;
-            if (relativePath.startsWith("/uploads/")) {
-                relativePath = relativePath.substring(9);
-            } else if (relativePath.startsWith("/files/")) {
-                relativePath = relativePath.substring(7);
+            boolean deleted = blobStore.delete(key);
+            if (key.startsWith("images/")) {
+                deleteVariants(key.substring("images/".length()));
             }
-
-            Path filePath = uploadPath.resolve(relativePath).normalize();
-            
-            // Security check: ensure the path is still within upload directory
-            if (!filePath.startsWith(uploadPath)) {
-                throw new IllegalArgumentException("Invalid file path");
-            }
-
-            return Files.deleteIfExists(filePath);
+            return deleted;
         } catch (IOException e) {
             throw new RuntimeException("Failed to delete file: " + fileUrl, e);
         }
     }
 
     /**
-     * Get the full path to a stored file
+     * Storage key of a file, e.g. {@code images/abc123.jpg} for {@code /uploads/images/abc123.jpg}
      * @param fileUrl The relative URL path
-     * @return The full file path
+     * @return The key in the blob store
      */
-    public Path getFilePath(String fileUrl) {
+    public String toKey(String fileUrl) {
         String relativePath = fileUrl;
         if (relativePath.startsWith("/uploads/")) {
             relativePath = relativePath.substring(9);
@@ -111,63 +139,195 @@ public class FileStorageService {
         } else if (relativePath.startsWith("/api/files/")) {
             relativePath = relativePath.substring(11);
         }
-        
-        Path filePath = uploadPath.resolve(relativePath).normalize();
-        
-        // Security check: ensure the path is still within upload directory
-        if (!filePath.startsWith(uploadPath)) {
-            throw new IllegalArgumentException("Invalid file path - directory traversal detected");
+
+        // Security check: keys are plain relative paths, never leaving the upload root
+        for (String segment : relativePath.split("/", -1)) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..") || segment.contains("\\")) {
+                throw new IllegalArgumentException("Invalid file path - directory traversal detected");
+            }
+        }
+        return relativePath;
+    }
+
+    /**
+     * Key of a cached image variant.
+     */
+    public String variantKey(String variant, String filename, String extension) {
+        return toKey("variants/" + variant + "/" + baseName(filename) + extension);
+    }
+
+    static String baseName(String filename) {
+        int dotIndex = filename.lastIndexOf('.');
+        return dotIndex > 0 ? filename.substring(0, dotIndex) : filename;
+    }
+
+    private void deleteVariants(String filename) throws IOException {
+        for (ImageVariantService.Variant variant : ImageVariantService.Variant.values()) {
+            for (String extension : VARIANT_EXTENSIONS) {
+                blobStore.delete(variantKey(variant.pathName(), filename, extension));
+            }
         }
-        
-        return filePath;
     }
 
-    private void validateFile(MultipartFile file, Set<String> allowedTypes) {
+    /**
+     * Whether a stored filename was generated by this service (UUID or content digest),
+     * so responses for it can be cached indefinitely.
+     */
+    public static boolean isImmutableName(String filename) {
+        return IMMUTABLE_NAME.matcher(filename).matches();
+    }
+
+    private void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File is empty or null");
         }
+        checkDeclaredLength(file.getSize());
 
-        if (file.getSize() > maxFileSize) {
-            throw new IllegalArgumentException("File size exceeds maximum allowed size of " + 
-                    (maxFileSize / 1024 / 1024) + "MB");
+        // Security check: prevent directory traversal
+        String originalFilename = file.getOriginalFilename();
+        if (originalFilename != null && StringUtils.cleanPath(originalFilename).contains("..")) {
+            throw new IllegalArgumentException("Filename contains invalid path sequence");
         }
+    }
 
-        String contentType = file.getContentType();
-        if (contentType == null || !allowedTypes.contains(contentType)) {
-            throw new IllegalArgumentException("File type '" + contentType + 
-                    "' is not allowed. Allowed types: " + allowedTypes);
+    private void checkDeclaredLength(long length) {
+        if (length > maxFileSize) {
+            throw fileTooLarge();
         }
     }
 
-    private String storeFile(MultipartFile file, String subDirectory) {
-        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-        
-        // Security check: prevent directory traversal
-        if (originalFilename.contains("..")) {
-            throw new IllegalArgumentException("Filename contains invalid path sequence");
+    private String storeFile(MultipartFile file, String subDirectory, Set<String> allowedTypes) {
+        try (InputStream in = file.getInputStream()) {
+            return store(in, subDirectory, allowedTypes);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file: " + file.getOriginalFilename(), e);
         }
+    }
 
-        // Generate unique filename to prevent overwrites
-        String extension = getFileExtension(originalFilename);
-        String uniqueFilename = UUID.randomUUID().toString() + extension;
+    /**
+     * Streams an upload to a staging file and hands it to the blob store.
+     *
+     * The type is taken from the magic bytes of the first chunk, not from the client's
+     * Content-Type or filename, and decides the stored extension. Disallowed content is
+     * rejected before anything is written, oversized content as soon as the limit is passed,
+     * so memory use stays at one copy buffer per upload. With deduplication enabled the file
+     * is named after the SHA-256 of its content, computed during the same copy; identical
+     * uploads then resolve to the same URL and the registry's reference count decides when
+     * the last user is gone.
+     */
+    private String store(InputStream content, String subDirectory, Set<String> allowedTypes) {
+        Path tempFile = null;
 
         try {
-            Path targetDir = uploadPath.resolve(subDirectory);
-            Path targetPath = targetDir.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
+            byte[] header = content.readNBytes(SNIFF_LENGTH);
+            if (header.length == 0) {
+                throw new IllegalArgumentException("File is empty or null");
+            }
+            String contentType = sniffContentType(header);
+            if (contentType == null || !allowedTypes.contains(contentType)) {
+                throw new IllegalArgumentException("File content is not an allowed type. Allowed types: " + allowedTypes);
+            }
+            String extension = EXTENSIONS.get(contentType);
+
+            MessageDigest digest = dedupEnabled ? MessageDigest.getInstance("SHA-256") : null;
+            tempFile = blobStore.createStagingFile();
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                copyBounded(header, content, out, digest);
+            }
+
+            String filename;
+            if (digest != null) {
+                String contentHash = HexFormat.of().formatHex(digest.digest());
+                filename = contentHash + extension;
+                String key = subDirectory + "/" + filename;
+                String fileUrl = "/uploads/" + subDirectory + "/" + filename;
+                // Registered before the existence check: a cleanup deleting this content finishes
+                // first, and one starting later sees the fresh upload time and keeps the file
+                fileRegistry.registerContent(fileUrl, contentHash);
+                // A concurrent identical upload replacing it writes the same bytes
+                if (!blobStore.exists(key)) {
+                    blobStore.put(key, tempFile, contentType);
+                }
+                return fileUrl;
+            }
+
+            // Generate unique filename to prevent overwrites
+            filename = UUID.randomUUID() + extension;
+            blobStore.put(subDirectory + "/" + filename, tempFile, contentType);
 
             // Return the relative URL path
-            return "/uploads/" + subDirectory + "/" + uniqueFilename;
+            String fileUrl = "/uploads/" + subDirectory + "/" + filename;
+            fileRegistry.register(fileUrl);
+            return fileUrl;
         } catch (IOException e) {
-            throw new RuntimeException("Failed to store file: " + originalFilename, e);
+            throw new RuntimeException("Failed to store file", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    // best effort, the staging file is not referenced anywhere
+                }
+            }
         }
     }
 
-    private String getFileExtension(String filename) {
-        int dotIndex = filename.lastIndexOf('.');
-        if (dotIndex > 0 && dotIndex < filename.length() - 1) {
-            return filename.substring(dotIndex);
+    private void copyBounded(byte[] header, InputStream in, OutputStream out, MessageDigest digest) throws IOException {
+        long total = 0;
+        byte[] buffer = header;
+        int read = header.length;
+        byte[] chunk = new byte[COPY_BUFFER_SIZE];
+        do {
+            total += read;
+            if (total > maxFileSize) {
+                throw fileTooLarge();
+            }
+            out.write(buffer, 0, read);
+            if (digest != null) {
+                digest.update(buffer, 0, read);
+            }
+            buffer = chunk;
+        } while ((read = in.read(chunk)) != -1);
+    }
+
+    /**
+     * MIME type of a supported format recognised by its leading bytes, or null.
+     */
+    static String sniffContentType(byte[] header) {
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(header, 0, 'G', 'I', 'F', '8') && (startsWith(header, 4, '7', 'a') || startsWith(header, 4, '9', 'a'))) {
+            return "image/gif";
+        }
+        if (startsWith(header, 0, 'R', 'I', 'F', 'F') && startsWith(header, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
         }
-        return "";
+        if (startsWith(header, 0, '%', 'P', 'D', 'F', '-')) {
+            return "application/pdf";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... expected) {
+        if (data.length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((data[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private IllegalArgumentException fileTooLarge() {
+        return new IllegalArgumentException("File size exceeds maximum allowed size of " +
+                (maxFileSize / 1024 / 1024) + "MB");
     }
 }
@@ -0,0 +1,280 @@
+package org.rotary.exchange.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.rotary.exchange.backend.exception.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+/**
+ * Produces fixed-width, re-encoded copies of uploaded images for list and card views.
+ *
+ * Variants are generated on first request and cached in the blob store next to the uploads
+ * ({@code variants/<variant>/<name>.<jpg|png>}), so every later request is a plain
+ * file read. Images without transparency are re-encoded as JPEG, images with transparency
+ * as PNG. Originals ImageIO cannot decode (e.g. WebP), that are already narrower than the
+ * variant or that have more than {@code file.image.max-pixels} pixels are served as they are;
+ * the dimensions are read from the image header before any pixels are decoded.
+ *
+ * Decoding is bounded: concurrent first requests for the same variant share one generation,
+ * and at most {@code file.image.variant-concurrency} images are decoded at once. Requests that
+ * wait longer than {@code file.image.variant-wait-timeout-ms} are answered with 503.
+ */
+@Service
+@Slf4j
+public class ImageVariantService {
+
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final String[] IMAGE_URL_PREFIXES = {"/uploads/images/", "/api/files/images/"};
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final FileStorageService fileStorageService;
+    private final BlobStore blobStore;
+    private final Semaphore decodePermits;
+    private final long waitTimeoutMillis;
+    private final long maxPixels;
+
+    // variant key -> generation in progress
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageVariantService(FileStorageService fileStorageService, BlobStore blobStore,
+                               @Value("${file.image.variant-concurrency:2}") int concurrency,
+                               @Value("${file.image.variant-wait-timeout-ms:5000}") long waitTimeoutMillis,
+                               @Value("${file.image.max-pixels:40000000}") long maxPixels) {
+        this.fileStorageService = fileStorageService;
+        this.blobStore = blobStore;
+        this.decodePermits = new Semaphore(concurrency);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.maxPixels = maxPixels;
+    }
+
+    public enum Variant {
+        THUMB(320),
+        CARD(640),
+        FULL(1280);
+
+        private final int width;
+
+        Variant(int width) {
+            this.width = width;
+        }
+
+        public String pathName() {
+            return name().toLowerCase();
+        }
+
+        /**
+         * @throws IllegalArgumentException for an unknown variant name
+         */
+        public static Variant fromPathName(String name) {
+            return Arrays.stream(values())
+                    .filter(variant -> variant.pathName().equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown image variant '" + name
+                            + "'. Allowed: thumb, card, full"));
+        }
+    }
+
+    /**
+     * URL of a variant of an uploaded image, or null if the image is not a local upload.
+     */
+    public static String variantUrl(String imageUrl, Variant variant) {
+        if (imageUrl == null) {
+            return null;
+        }
+        for (String prefix : IMAGE_URL_PREFIXES) {
+            if (imageUrl.startsWith(prefix)) {
+                return "/api/files/variants/" + variant.pathName() + "/" + imageUrl.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Storage key of the requested variant, generating it on first use.
+     *
+     * @return the variant's key, the original's if no smaller copy applies, or empty if the original does not exist
+     * @throws ServiceBusyException if the variant could not be generated within the wait timeout
+     */
+    public Optional<String> resolve(Variant variant, String filename) throws IOException {
+        String original = fileStorageService.toKey("images/" + filename);
+        if (!blobStore.exists(original)) {
+            return Optional.empty();
+        }
+
+        Optional<String> cached = findCached(variant, filename);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        // Concurrent first requests wait for the one generating the variant instead of decoding again
+        String inFlightKey = variant.pathName() + "/" + filename;
+        CompletableFuture<String> generation = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(inFlightKey, generation);
+        if (running != null) {
+            return Optional.of(await(running));
+        }
+
+        try {
+            // It may have been stored just before this request registered its generation
+            String key = findCached(variant, filename).orElse(null);
+            if (key == null) {
+                key = generateBounded(original, variant, filename);
+            }
+            generation.complete(key);
+            return Optional.of(key);
+        } catch (IOException | RuntimeException e) {
+            generation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(inFlightKey, generation);
+        }
+    }
+
+    private Optional<String> findCached(Variant variant, String filename) throws IOException {
+        for (String extension : FileStorageService.VARIANT_EXTENSIONS) {
+            String cached = fileStorageService.variantKey(variant.pathName(), filename, extension);
+            if (blobStore.exists(cached)) {
+                return Optional.of(cached);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private String generateBounded(String original, Variant variant, String filename) throws IOException {
+        try {
+            if (!decodePermits.tryAcquire(waitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw busy();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        }
+
+        try {
+            BufferedImage source = decode(original, variant);
+            return source == null ? original : generate(source, variant, filename);
+        } finally {
+            decodePermits.release();
+        }
+    }
+
+    /**
+     * The decoded original, or null if it cannot be decoded, is not wider than the variant or
+     * is too large to decode safely. The dimensions come from the header, so an image declaring
+     * a huge size is rejected before its pixel buffer is allocated.
+     */
+    private BufferedImage decode(String original, Variant variant) throws IOException {
+        try (InputStream in = blobStore.get(original);
+             ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= variant.width) {
+                    return null;
+                }
+                if ((long) width * height > maxPixels) {
+                    log.warn("Not generating variants of {}: {}x{} exceeds {} pixels", original, width, height, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private String await(CompletableFuture<String> generation) throws IOException {
+        try {
+            return generation.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw busy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Image variant generation failed", e.getCause());
+        }
+    }
+
+    private ServiceBusyException busy() {
+        return new ServiceBusyException("Too many images are being resized right now. Please try again in a moment.",
+                RETRY_AFTER_SECONDS);
+    }
+
+    private String generate(BufferedImage source, Variant variant, String filename) throws IOException {
+        boolean transparent = source.getColorModel().hasAlpha();
+        int height = Math.max(1, Math.round((float) source.getHeight() * variant.width / source.getWidth()));
+
+        BufferedImage scaled = new BufferedImage(variant.width, height,
+                transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, variant.width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        // Encode into a staging file and store it whole, so concurrent first requests never see a partial file
+        String target = fileStorageService.variantKey(variant.pathName(), filename, transparent ? ".png" : ".jpg");
+        Path temp = blobStore.createStagingFile();
+        try {
+            if (transparent) {
+                ImageIO.write(scaled, "png", temp.toFile());
+            } else {
+                writeJpeg(scaled, temp);
+            }
+            blobStore.put(target, temp, transparent ? "image/png" : "image/jpeg");
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        log.debug("Generated {} variant {}", variant.pathName(), target);
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam params = writer.getDefaultWriteParam();
+        params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        params.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), params);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.rotary.exchange.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Keeps uploads in a directory on the local disk ({@code file.upload-dir}).
+ *
+ * Uploads are staged in {@code file.staging-dir} (by default {@code <upload-dir>-staging} next to
+ * it), outside the publicly served upload directory, so incomplete or rejected uploads can never
+ * be downloaded. It must be on the same file system for the final move to be an atomic rename.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalBlobStore implements BlobStore {
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${file.staging-dir:}")
+    private String stagingDir;
+
+    private Path uploadPath;
+    private Path stagingPath;
+
+    @PostConstruct
+    public void init() {
+        uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        stagingPath = StringUtils.hasText(stagingDir)
+                ? Paths.get(stagingDir).toAbsolutePath().normalize()
+                : uploadPath.resolveSibling(uploadPath.getFileName() + "-staging");
+        if (stagingPath.startsWith(uploadPath)) {
+            throw new IllegalStateException("file.staging-dir must be outside the served upload directory " + uploadPath);
+        }
+        try {
+            Files.createDirectories(uploadPath);
+            Files.createDirectories(stagingPath);
+            Files.createDirectories(uploadPath.resolve("images"));
+            Files.createDirectories(uploadPath.resolve("flyers"));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create upload directories", e);
+        }
+    }
+
+    @Override
+    public Path createStagingFile() throws IOException {
+        return Files.createTempFile(stagingPath, "upload-", ".tmp");
+    }
+
+    @Override
+    public void put(String key, Path stagingFile, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Files.move(stagingFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public Optional<BlobInfo> stat(String key) throws IOException {
+        Path file = resolve(key);
+        if (!Files.isRegularFile(file) || !Files.isReadable(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(new BlobInfo(Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        Path file = uploadPath.resolve(key).normalize();
+
+        // Security check: ensure the path is still within upload directory
+        if (!file.startsWith(uploadPath)) {
+            throw new IllegalArgumentException("Invalid file path - directory traversal detected");
+        }
+        return file;
+    }
+}
@@ -0,0 +1,39 @@
+package org.rotary.exchange.backend.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.rotary.exchange.backend.model.Country;
+import org.rotary.exchange.backend.model.District;
+import org.springframework.stereotype.Component;
+
+/**
+ * Eviction of the second-level cache for countries and districts (see ehcache.xml).
+ *
+ * Hibernate already updates the cache for writes made through the entity manager on this
+ * node. The admin endpoints additionally drop the whole region and the cached query
+ * results after a change, so list endpoints can never keep serving a renamed or removed
+ * entry, whichever way the row was written.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictCountries() {
+        evict(Country.class);
+    }
+
+    public void evictDistricts() {
+        evict(District.class);
+    }
+
+    private void evict(Class<?> entityClass) {
+        entityManagerFactory.getCache().evict(entityClass);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        log.debug("Evicted second-level cache for {}", entityClass.getSimpleName());
+    }
+}
@@ -0,0 +1,94 @@
+package org.rotary.exchange.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.rotary.exchange.backend.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes expired and revoked refresh tokens continuously in small batches.
+ *
+ * Each batch selects up to {@code refresh-token.purge.batch-size} IDs and deletes them in its own
+ * short transaction, with a pause between batches, so the purge never holds locks for long or
+ * competes with logins for the database. A run stops after {@code max-batches-per-run} batches
+ * and the rest is picked up by the next run. {@code refresh.token.purge.lag} reports how long
+ * the oldest expired token has been waiting.
+ */
+@Component
+@Slf4j
+public class RefreshTokenPurgeWorker {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${refresh-token.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${refresh-token.purge.batch-pause-ms:200}")
+    private long batchPauseMillis;
+
+    @Value("${refresh-token.purge.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    private final Counter deleted;
+    private final DistributionSummary batchRows;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public RefreshTokenPurgeWorker(RefreshTokenRepository refreshTokenRepository, MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.deleted = Counter.builder("refresh.token.purge.deleted")
+                .description("Expired or revoked refresh tokens deleted")
+                .register(meterRegistry);
+        this.batchRows = DistributionSummary.builder("refresh.token.purge.batch")
+                .description("Refresh tokens deleted per purge batch")
+                .baseUnit("rows")
+                .register(meterRegistry);
+        meterRegistry.gauge("refresh.token.purge.lag", lagSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-token.purge.interval-ms:60000}")
+    public void purge() {
+        Instant now = Instant.now();
+        int total = 0;
+        int batches = 0;
+        List<Integer> ids;
+        do {
+            ids = refreshTokenRepository.findPurgeableIds(now, PageRequest.of(0, batchSize));
+            if (!ids.isEmpty()) {
+                refreshTokenRepository.deleteAllByIdInBatch(ids);
+                batchRows.record(ids.size());
+                deleted.increment(ids.size());
+                total += ids.size();
+            }
+            batches++;
+        } while (ids.size() == batchSize && batches < maxBatchesPerRun && pause());
+
+        Instant oldest = refreshTokenRepository.findOldestExpiry(Instant.now());
+        lagSeconds.set(oldest == null ? 0 : Duration.between(oldest, Instant.now()).toSeconds());
+        if (total > 0) {
+            log.info("Purged {} expired/revoked refresh tokens in {} batches", total, batches);
+        }
+    }
+
+    /**
+     * @return false if the worker was interrupted and should stop
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -8,10 +8,13 @@ import org.rotary.exchange.backend.model.RefreshToken;
 import org.rotary.exchange.backend.repository.CoordinatorRepository;
 import org.rotary.exchange.backend.repository.RefreshTokenRepository;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -23,6 +26,10 @@ public class RefreshTokenService {
     @Value("${jwt.refresh-expiration:604800}")  // 7 days default
     private long refreshTokenDurationSeconds;
 
+    // A replaced token presented this soon after rotation is a concurrent refresh (e.g. two tabs), not theft
+    @Value("${jwt.refresh-reuse-grace-seconds:30}")
+    private long reuseGraceSeconds;
+
     private final RefreshTokenRepository refreshTokenRepository;
     private final CoordinatorRepository coordinatorRepository;
 
@@ -36,7 +43,9 @@ public class RefreshTokenService {
 
         RefreshToken refreshToken = new RefreshToken();
         refreshToken.setCoordinator(coordinator);
-        refreshToken.setToken(UUID.randomUUID().toString());
+        String token = newToken();
+        refreshToken.setToken(token);
+        refreshToken.setTokenHash(hash(token));
         refreshToken.setExpiryDate(Instant.now().plusSeconds(refreshTokenDurationSeconds));
         refreshToken.setRevoked(false);
 
@@ -44,11 +53,39 @@ public class RefreshTokenService {
     }
 
     /**
-     * Validate and return the refresh token
+     * Validate the refresh token and replace it with a new one in the same session.
+     *
+     * Costs one lookup and one conditional UPDATE. Of two concurrent refreshes with the same token
+     * only one wins; the other, like any replay within the grace period, is rejected without
+     * ending the session. A replaced token presented after the grace period means it was copied,
+     * so the whole session is revoked.
+     *
+     * @return the session with its coordinator and roles loaded, and the new token in {@code token}
      */
-    public RefreshToken verifyRefreshToken(String token) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(token)
-                .orElseThrow(() -> new TokenRefreshException("Refresh token not found"));
+    @Transactional(noRollbackFor = TokenRefreshException.class)
+    public RefreshToken rotateRefreshToken(String token) {
+        byte[] presented = hash(token);
+        RefreshToken refreshToken = refreshTokenRepository.findWithCoordinatorByTokenHash(presented)
+                .orElseThrow(() -> rejectReplacedToken(presented));
+        checkUsable(refreshToken);
+
+        String next = newToken();
+        boolean rotated;
+        try {
+            rotated = refreshTokenRepository.rotate(refreshToken.getId(), presented, hash(next), Instant.now()) == 1;
+        } catch (ConcurrencyFailureException e) {
+            rotated = false;
+        }
+        if (!rotated) {
+            // Another request rotated the same token between our read and write
+            throw new TokenRefreshException("Refresh token was already used. Please retry with the current token.");
+        }
+
+        refreshToken.setToken(next);
+        return refreshToken;
+    }
+
+    private void checkUsable(RefreshToken refreshToken) {
 
         if (refreshToken.isRevoked()) {
             throw new TokenRefreshException("Refresh token has been revoked. Please login again.");
@@ -57,8 +94,22 @@ public class RefreshTokenService {
         if (refreshToken.isExpired()) {
             throw new TokenRefreshException("Refresh token has expired. Please login again.");
         }
+    }
+
+    private TokenRefreshException rejectReplacedToken(byte[] presented) {
+        RefreshToken session = refreshTokenRepository.findByPreviousTokenHash(presented).orElse(null);
+        if (session == null || session.isRevoked()) {
+            return new TokenRefreshException("Refresh token not found");
+        }
 
-        return refreshToken;
+        Instant graceEnd = session.getRotatedAt().plusSeconds(reuseGraceSeconds);
+        if (Instant.now().isBefore(graceEnd)) {
+            return new TokenRefreshException("Refresh token was already used. Please retry with the current token.");
+        }
+
+        refreshTokenRepository.revokeById(session.getId());
+        log.warn("Reuse of a rotated refresh token detected, revoked session {}", session.getId());
+        return new TokenRefreshException("Refresh token reuse detected. Please login again.");
     }
 
     /**
@@ -66,7 +117,7 @@ public class RefreshTokenService {
      */
     @Transactional
     public void revokeToken(String token) {
-        refreshTokenRepository.revokeByToken(token);
+        refreshTokenRepository.revokeByTokenHash(hash(token));
     }
 
     /**
@@ -78,13 +129,19 @@ public class RefreshTokenService {
         log.info("Revoked {} refresh tokens for coordinator {}", revokedCount, coordinator.getEmail());
     }
 
+    private static String newToken() {
+        return UUID.randomUUID().toString();
+    }
+
     /**
-     * Cleanup job - runs daily at 3 AM to remove expired/revoked tokens
+     * Only this digest is stored, so a leaked table does not yield usable tokens.
+     * Tokens are random, so a plain (unsalted) SHA-256 is enough and keeps lookups indexable.
      */
-    @Scheduled(cron = "0 0 3 * * ?")
-    @Transactional
-    public void cleanupExpiredTokens() {
-        int deletedCount = refreshTokenRepository.deleteExpiredAndRevoked(Instant.now());
-        log.info("Cleaned up {} expired/revoked refresh tokens", deletedCount);
+    static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,161 @@
+package org.rotary.exchange.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keeps uploads in an S3-compatible bucket (AWS S3, MinIO, ...), shared by all backend nodes.
+ *
+ * Downloads are answered with presigned GET URLs, so file content goes from the bucket to the
+ * client directly. Set {@code storage.s3.endpoint} (and usually {@code path-style=true}) for
+ * non-AWS servers; without explicit keys the default AWS credential chain is used.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+@Slf4j
+public class S3BlobStore implements BlobStore {
+
+    private final String bucket;
+    private final S3Client client;
+    private final S3Presigner presigner;
+
+    public S3BlobStore(@Value("${storage.s3.bucket}") String bucket,
+                       @Value("${storage.s3.region:us-east-1}") String region,
+                       @Value("${storage.s3.endpoint:}") String endpoint,
+                       @Value("${storage.s3.path-style:false}") boolean pathStyle,
+                       @Value("${storage.s3.access-key:}") String accessKey,
+                       @Value("${storage.s3.secret-key:}") String secretKey) {
+        this.bucket = bucket;
+
+        AwsCredentialsProvider credentials = StringUtils.hasText(accessKey)
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                : DefaultCredentialsProvider.builder().build();
+        S3Configuration configuration = S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build();
+
+        var clientBuilder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(configuration);
+        var presignerBuilder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(configuration);
+        if (StringUtils.hasText(endpoint)) {
+            clientBuilder.endpointOverride(URI.create(endpoint));
+            presignerBuilder.endpointOverride(URI.create(endpoint));
+        }
+        this.client = clientBuilder.build();
+        this.presigner = presignerBuilder.build();
+        log.info("Storing uploads in S3 bucket '{}'", bucket);
+    }
+
+    @PreDestroy
+    public void close() {
+        presigner.close();
+        client.close();
+    }
+
+    @Override
+    public Path createStagingFile() throws IOException {
+        return Files.createTempFile("upload-", ".tmp");
+    }
+
+    @Override
+    public void put(String key, Path stagingFile, String contentType) throws IOException {
+        try {
+            client.putObject(request -> request.bucket(bucket).key(key).contentType(contentType),
+                    RequestBody.fromFile(stagingFile));
+        } catch (SdkException e) {
+            throw new IOException("Failed to upload " + key, e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        return head(key).isPresent();
+    }
+
+    @Override
+    public Optional<BlobInfo> stat(String key) throws IOException {
+        return head(key).map(response -> new BlobInfo(response.contentLength(), response.lastModified().toEpochMilli()));
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        try {
+            return client.getObject(request -> request.bucket(bucket).key(key));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new NoSuchFileException(key);
+            }
+            throw new IOException("Failed to download " + key, e);
+        } catch (SdkException e) {
+            throw new IOException("Failed to download " + key, e);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        // DeleteObject succeeds for missing keys, so ask first to report whether anything was removed
+        if (!exists(key)) {
+            return false;
+        }
+        try {
+            client.deleteObject(request -> request.bucket(bucket).key(key));
+            return true;
+        } catch (SdkException e) {
+            throw new IOException("Failed to delete " + key, e);
+        }
+    }
+
+    @Override
+    public Optional<URI> presignedGet(String key, Duration validFor) {
+        var presigned = presigner.presignGetObject(request -> request
+                .signatureDuration(validFor)
+                .getObjectRequest(get -> get.bucket(bucket).key(key)));
+        try {
+            return Optional.of(presigned.url().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Presigned URL is not a valid URI", e);
+        }
+    }
+
+    private Optional<HeadObjectResponse> head(String key) throws IOException {
+        try {
+            return Optional.of(client.headObject(request -> request.bucket(bucket).key(key)));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new IOException("Failed to look up " + key, e);
+        } catch (SdkException e) {
+            throw new IOException("Failed to look up " + key, e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+-- Materialized availability of a camp in a district (local_status OPEN, ONLY_MALE or ONLY_FEMALE),
+-- so the student search is answered from idx_cds_district_available alone.
+-- New releases keep it in sync through CampDistrictStatus.setLocalStatus; the trigger does the same
+-- for rows written by nodes still running the previous release during a rolling deploy.
+-- Databases where the former startup initializer already added the column are backfilled again.
+
+ALTER TABLE camp_district_status ADD COLUMN IF NOT EXISTS available BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE camp_district_status SET available = (local_status IN ('OPEN', 'ONLY_MALE', 'ONLY_FEMALE'))
+WHERE available IS DISTINCT FROM (local_status IN ('OPEN', 'ONLY_MALE', 'ONLY_FEMALE'));
+
+CREATE OR REPLACE FUNCTION camp_district_status_available() RETURNS trigger AS $fn$
+BEGIN
+    NEW.available := COALESCE(NEW.local_status IN ('OPEN', 'ONLY_MALE', 'ONLY_FEMALE'), FALSE);
+    RETURN NEW;
+END
+$fn$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_camp_district_status_available ON camp_district_status;
+CREATE TRIGGER trg_camp_district_status_available
+    BEFORE INSERT OR UPDATE OF local_status ON camp_district_status
+    FOR EACH ROW EXECUTE FUNCTION camp_district_status_available();
+
+CREATE INDEX IF NOT EXISTS idx_cds_district_available
+    ON camp_district_status (district_id, available, camp_instance_id);
@@ -0,0 +1,15 @@
+-- PostgreSQL full-text search over camp template name + description, used by the camp search.
+-- camp_unaccent is an IMMUTABLE wrapper around unaccent (required for index expressions).
+-- The indexed expression must stay identical to FullTextSearchFunctions.DOCUMENT,
+-- otherwise PostgreSQL will not use idx_camp_template_fts.
+-- unaccent is a trusted extension, so the database owner can create it without superuser rights.
+-- Databases where the former startup initializer already created these objects are left as they are.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+CREATE OR REPLACE FUNCTION camp_unaccent(text) RETURNS text AS
+$$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$
+LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+CREATE INDEX IF NOT EXISTS idx_camp_template_fts ON camp_template
+    USING GIN (to_tsvector('simple', camp_unaccent(coalesce(name, '') || ' ' || coalesce(description, ''))));
@@ -0,0 +1,95 @@
+-- Schema as it stood before Flyway was introduced, so an empty database can be migrated from scratch.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this script.
+-- Later changes belong in their own migrations; this file must not change once released.
+
+CREATE TABLE country (
+    id          INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255),
+    pdf_visible BOOLEAN
+);
+
+CREATE TABLE district (
+    id          INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code        VARCHAR(255) NOT NULL,
+    access_code VARCHAR(12)  NOT NULL,
+    country_id  INTEGER,
+    CONSTRAINT uk_district_code UNIQUE (code),
+    CONSTRAINT uk_district_access_code UNIQUE (access_code),
+    CONSTRAINT fk_district_country FOREIGN KEY (country_id) REFERENCES country (id)
+);
+
+CREATE TABLE role (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    CONSTRAINT uk_role_name UNIQUE (name)
+);
+
+CREATE TABLE coordinator (
+    id                  INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    district_id         INTEGER,
+    first_name          VARCHAR(255),
+    last_name           VARCHAR(255),
+    email               VARCHAR(255) NOT NULL,
+    phone               VARCHAR(255),
+    password_hash       VARCHAR(255) NOT NULL,
+    profile_picture_url VARCHAR(255),
+    description         TEXT,
+    CONSTRAINT uk_coordinator_email UNIQUE (email),
+    CONSTRAINT fk_coordinator_district FOREIGN KEY (district_id) REFERENCES district (id)
+);
+
+CREATE TABLE coordinator_roles (
+    coordinator_id INTEGER NOT NULL,
+    role_id        BIGINT  NOT NULL,
+    PRIMARY KEY (coordinator_id, role_id),
+    CONSTRAINT fk_coordinator_roles_coordinator FOREIGN KEY (coordinator_id) REFERENCES coordinator (id),
+    CONSTRAINT fk_coordinator_roles_role FOREIGN KEY (role_id) REFERENCES role (id)
+);
+
+CREATE TABLE camp_template (
+    id            INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    owner_id      INTEGER,
+    name          VARCHAR(255),
+    description   TEXT,
+    age_min       INTEGER,
+    age_max       INTEGER,
+    image_url     VARCHAR(255),
+    flyer_pdf_url VARCHAR(255),
+    CONSTRAINT fk_camp_template_owner FOREIGN KEY (owner_id) REFERENCES coordinator (id)
+);
+
+CREATE TABLE camp_instance (
+    id             INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    template_id    INTEGER,
+    coordinator_id INTEGER,
+    date_start     DATE,
+    date_end       DATE,
+    price          INTEGER,
+    edition        INTEGER,
+    global_status  VARCHAR(255),
+    limit_total    INTEGER,
+    limit_male     INTEGER,
+    limit_female   INTEGER,
+    CONSTRAINT fk_camp_instance_template FOREIGN KEY (template_id) REFERENCES camp_template (id),
+    CONSTRAINT fk_camp_instance_coordinator FOREIGN KEY (coordinator_id) REFERENCES coordinator (id)
+);
+
+CREATE TABLE camp_district_status (
+    id               INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    camp_instance_id INTEGER,
+    district_id      INTEGER,
+    local_status     VARCHAR(255),
+    CONSTRAINT uk_camp_district_status UNIQUE (camp_instance_id, district_id),
+    CONSTRAINT fk_camp_district_status_camp_instance FOREIGN KEY (camp_instance_id) REFERENCES camp_instance (id),
+    CONSTRAINT fk_camp_district_status_district FOREIGN KEY (district_id) REFERENCES district (id)
+);
+
+CREATE TABLE refresh_token (
+    id             INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    coordinator_id INTEGER      NOT NULL,
+    token          VARCHAR(255) NOT NULL,
+    expiry_date    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked        BOOLEAN      NOT NULL,
+    CONSTRAINT uk_refresh_token_token UNIQUE (token),
+    CONSTRAINT fk_refresh_token_coordinator FOREIGN KEY (coordinator_id) REFERENCES coordinator (id)
+);
@@ -0,0 +1,38 @@
+-- Refresh tokens are looked up by their SHA-256 digest (token_hash) instead of the plaintext token.
+--
+-- Expand step only, so nodes still running the previous release keep working during a rolling
+-- deploy: the plaintext column stays (nullable, new nodes no longer write it) and a trigger
+-- hashes whatever old nodes insert. A later release drops the trigger and the token column and
+-- makes token_hash NOT NULL, once no node writes plaintext tokens any more.
+
+ALTER TABLE refresh_token ADD COLUMN IF NOT EXISTS token_hash BYTEA;
+
+DO $$
+BEGIN
+    -- Databases already migrated by the former startup initializer have no plaintext column
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'refresh_token' AND column_name = 'token') THEN
+
+        UPDATE refresh_token SET token_hash = sha256(convert_to(token, 'UTF8'))
+        WHERE token_hash IS NULL AND token IS NOT NULL;
+
+        ALTER TABLE refresh_token ALTER COLUMN token DROP NOT NULL;
+
+        CREATE OR REPLACE FUNCTION refresh_token_hash_legacy() RETURNS trigger AS $fn$
+        BEGIN
+            IF NEW.token IS NOT NULL AND NEW.token_hash IS NULL THEN
+                NEW.token_hash := sha256(convert_to(NEW.token, 'UTF8'));
+            END IF;
+            RETURN NEW;
+        END
+        $fn$ LANGUAGE plpgsql;
+
+        DROP TRIGGER IF EXISTS trg_refresh_token_hash_legacy ON refresh_token;
+        CREATE TRIGGER trg_refresh_token_hash_legacy
+            BEFORE INSERT OR UPDATE OF token ON refresh_token
+            FOR EACH ROW EXECUTE FUNCTION refresh_token_hash_legacy();
+    END IF;
+END
+$$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_token_hash ON refresh_token (token_hash);
@@ -0,0 +1,7 @@
+-- Refresh token rotation: the row keeps the digest of the token it replaced to detect reuse.
+-- Additive only; the previous release ignores both columns.
+
+ALTER TABLE refresh_token ADD COLUMN IF NOT EXISTS previous_token_hash BYTEA;
+ALTER TABLE refresh_token ADD COLUMN IF NOT EXISTS rotated_at TIMESTAMP(6) WITH TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_previous_hash ON refresh_token (previous_token_hash);
@@ -0,0 +1,9 @@
+-- Version of the claims embedded in a coordinator's access tokens (district, roles, sessions).
+-- Bumped when they change or on logout from all devices; tokens with an older version are refused.
+-- claims_changed_at lets every node pick up recent bumps incrementally.
+
+ALTER TABLE coordinator ADD COLUMN IF NOT EXISTS claims_version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE coordinator ADD COLUMN IF NOT EXISTS claims_changed_at TIMESTAMP(6) WITH TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_coordinator_claims_changed_at ON coordinator (claims_changed_at)
+    WHERE claims_changed_at IS NOT NULL;
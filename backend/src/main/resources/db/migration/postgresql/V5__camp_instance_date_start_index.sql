@@ -0,0 +1,4 @@
+-- Keyset pagination of camp listings orders by (date_start, id) and seeks past the cursor,
+-- which this index serves without sorting the filtered rows.
+
+CREATE INDEX IF NOT EXISTS idx_camp_instance_date_start_id ON camp_instance (date_start, id);
@@ -0,0 +1,15 @@
+-- Queue of replaced or orphaned uploads, drained by FileCleanupWorker.
+-- Workers claim due tasks oldest first (next_attempt_at <= now ORDER BY next_attempt_at) with
+-- FOR UPDATE SKIP LOCKED; reconciliation checks by url whether a file is already queued.
+
+CREATE TABLE IF NOT EXISTS file_cleanup_task (
+    id              INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    url             VARCHAR(255) NOT NULL,
+    file_type       VARCHAR(255) NOT NULL,
+    attempts        INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_error      VARCHAR(500)
+);
+
+CREATE INDEX IF NOT EXISTS idx_file_cleanup_task_due ON file_cleanup_task (next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_file_cleanup_task_url ON file_cleanup_task (url);
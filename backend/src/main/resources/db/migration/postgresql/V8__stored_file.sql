@@ -0,0 +1,11 @@
+-- Reference-counted registry of uploaded files. Uploads, acquire and release look entries up by
+-- url (unique); reconciliation walks the table in id order. Files uploaded before the registry
+-- existed get their entry from the first reconciliation, which registers every referenced URL.
+
+CREATE TABLE IF NOT EXISTS stored_file (
+    id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    url        VARCHAR(255) NOT NULL,
+    ref_count  INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_stored_file_url UNIQUE (url)
+);
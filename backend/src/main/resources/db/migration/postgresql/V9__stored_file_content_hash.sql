@@ -0,0 +1,10 @@
+-- Content-addressed uploads: the digest of the content and when it was last handed out by an
+-- upload. Such files are found by their URL, which contains the digest (uk_stored_file_url).
+-- Entries from before stay NULL; they are treated as uploaded when they were created.
+
+ALTER TABLE stored_file ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE stored_file ADD COLUMN IF NOT EXISTS last_uploaded_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- Orphan scan of the reconciliation: unreferenced entries not uploaded since the grace limit
+CREATE INDEX IF NOT EXISTS idx_stored_file_unreferenced ON stored_file (COALESCE(last_uploaded_at, created_at))
+    WHERE ref_count = 0;
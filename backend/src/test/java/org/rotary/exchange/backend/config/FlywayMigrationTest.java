@@ -0,0 +1,86 @@
+package org.rotary.exchange.backend.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * All migrations against an empty PostgreSQL database, as on a fresh install.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FlywayMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP SCHEMA public CASCADE");
+        jdbc.execute("CREATE SCHEMA public");
+    }
+
+    @Test
+    void migratesEmptyDatabaseToLatestVersion() {
+        Flyway flyway = flyway();
+
+        flyway.migrate();
+
+        MigrationInfo[] all = flyway.info().all();
+        assertEquals("1", all[0].getVersion().getVersion());
+        assertEquals(all[all.length - 1].getVersion(), flyway.info().current().getVersion());
+        assertTrue(Arrays.stream(all).allMatch(migration -> migration.getState().isApplied()));
+
+        List<String> tables = jdbc.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = 'public'", String.class);
+        assertTrue(tables.containsAll(List.of("country", "district", "role", "coordinator", "coordinator_roles",
+                "camp_template", "camp_instance", "camp_district_status", "refresh_token",
+                "file_cleanup_task", "stored_file")));
+    }
+
+    @Test
+    void freshSchemaAcceptsWritesOfTheCurrentRelease() {
+        flyway().migrate();
+
+        jdbc.update("INSERT INTO district (code, access_code) VALUES ('D1', 'abc')");
+        jdbc.update("INSERT INTO coordinator (email, password_hash, district_id) "
+                + "SELECT 'a@example.com', 'x', id FROM district");
+        jdbc.update("INSERT INTO camp_template (name, description) VALUES ('Sailing', 'Żagle na Mazurach')");
+        jdbc.update("INSERT INTO camp_instance (template_id, global_status) SELECT id, 'OPEN' FROM camp_template");
+        jdbc.update("INSERT INTO camp_district_status (camp_instance_id, district_id, local_status) "
+                + "SELECT c.id, d.id, 'OPEN' FROM camp_instance c, district d");
+        jdbc.update("INSERT INTO refresh_token (coordinator_id, token_hash, expiry_date, revoked) "
+                + "SELECT id, sha256('t'::bytea), now(), false FROM coordinator");
+
+        assertEquals(Boolean.TRUE, jdbc.queryForObject("SELECT available FROM camp_district_status", Boolean.class));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM camp_template WHERE to_tsvector('simple', "
+                + "camp_unaccent(coalesce(name, '') || ' ' || coalesce(description, ''))) @@ to_tsquery('simple', 'zagle:*')",
+                Integer.class));
+    }
+
+    private Flyway flyway() {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/postgresql")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+}
@@ -0,0 +1,97 @@
+package org.rotary.exchange.backend.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Refresh token migrations against a refresh_token table as the previous release left it, on real PostgreSQL.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RefreshTokenHashMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP SCHEMA public CASCADE");
+        jdbc.execute("CREATE SCHEMA public");
+        jdbc.execute("CREATE TABLE refresh_token (id SERIAL PRIMARY KEY, coordinator_id INTEGER NOT NULL, "
+                + "token VARCHAR(255) NOT NULL UNIQUE, expiry_date TIMESTAMP(6) WITH TIME ZONE NOT NULL, "
+                + "revoked BOOLEAN NOT NULL)");
+    }
+
+    @Test
+    void hashesExistingTokensAndKeepsPreviousReleaseWorking() throws Exception {
+        jdbc.update("INSERT INTO refresh_token (coordinator_id, token, expiry_date, revoked) VALUES (1, 'existing', now(), false)");
+
+        migrateTo("2");
+
+        assertArrayEquals(sha256("existing"), hashOf("existing"));
+
+        // A node still on the previous release inserts plaintext only
+        jdbc.update("INSERT INTO refresh_token (coordinator_id, token, expiry_date, revoked) VALUES (1, 'old-node', now(), false)");
+        assertArrayEquals(sha256("old-node"), hashOf("old-node"));
+
+        // The new release writes the digest only
+        jdbc.update("INSERT INTO refresh_token (coordinator_id, token_hash, expiry_date, revoked) VALUES (1, ?, now(), false)",
+                (Object) sha256("new-node"));
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM refresh_token WHERE token_hash IS NOT NULL", Integer.class));
+    }
+
+    @Test
+    void runsOnDatabasesAlreadyWithoutPlaintextColumn() {
+        jdbc.execute("ALTER TABLE refresh_token DROP COLUMN token");
+        jdbc.execute("ALTER TABLE refresh_token ADD COLUMN token_hash BYTEA NOT NULL");
+
+        migrateTo("2");
+
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM pg_indexes WHERE indexname = 'uk_refresh_token_hash'",
+                Integer.class));
+    }
+
+    @Test
+    void addsRotationColumns() {
+        migrateTo("3");
+
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'refresh_token' "
+                + "AND column_name IN ('previous_token_hash', 'rotated_at')", Integer.class));
+    }
+
+    private void migrateTo(String version) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/postgresql")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .target(version)
+                .load()
+                .migrate();
+    }
+
+    private byte[] hashOf(String token) {
+        return jdbc.queryForObject("SELECT token_hash FROM refresh_token WHERE token = ?", byte[].class, token);
+    }
+
+    private static byte[] sha256(String token) throws Exception {
+        return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,144 @@
+package org.rotary.exchange.backend.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rotary.exchange.backend.service.BlobStore;
+import org.rotary.exchange.backend.service.FileRegistryService;
+import org.rotary.exchange.backend.service.FileStorageService;
+import org.rotary.exchange.backend.service.ImageVariantService;
+import org.rotary.exchange.backend.service.LocalBlobStore;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Downloads through {@code FileController.serve} from a local blob store in a temporary directory.
+ */
+class FileControllerTest {
+
+    private static final String FILENAME = "0f8fad5b-d9cb-469f-a165-70867728950e.pdf";
+    private static final String CONTENT = "%PDF-1.7 flyer content";
+    private static final String URL = "/api/files/flyers/" + FILENAME;
+
+    // Request attributes of Tomcat's sendfile support
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    @TempDir
+    Path root;
+
+    private Path uploadDir;
+
+    private BlobStore blobStore;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        uploadDir = root.resolve("uploads");
+        LocalBlobStore localBlobStore = new LocalBlobStore();
+        ReflectionTestUtils.setField(localBlobStore, "uploadDir", uploadDir.toString());
+        localBlobStore.init();
+        Files.writeString(uploadDir.resolve("flyers").resolve(FILENAME), CONTENT);
+        blobStore = spy(localBlobStore);
+
+        FileStorageService fileStorageService = new FileStorageService(mock(FileRegistryService.class), blobStore);
+        FileController controller = new FileController(fileStorageService, mock(ImageVariantService.class), blobStore);
+        ReflectionTestUtils.setField(controller, "presignTtlSeconds", 300L);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void servesTheFileWithValidatorsAndImmutableCaching() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/pdf"))
+                .andExpect(content().string(CONTENT))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    void answersConditionalRequestsWithNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get(URL)).andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void servesByteRanges() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-7/" + CONTENT.length()))
+                .andExpect(content().string(CONTENT.substring(0, 8)));
+    }
+
+    @Test
+    void handsFullResponsesToSendfileWhenSupported() throws Exception {
+        Path file = uploadDir.resolve("flyers").resolve(FILENAME).toAbsolutePath().normalize();
+
+        MvcResult result = mockMvc.perform(get(URL).requestAttr(SENDFILE_SUPPORT, true))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+                .andExpect(request().attribute(SENDFILE_FILENAME, file.toString()))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.start", 0L))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.end", (long) CONTENT.length()))
+                .andReturn();
+
+        // The container writes the content, the application does not
+        assertEquals("", result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rangeRequestsBypassSendfile() throws Exception {
+        mockMvc.perform(get(URL).requestAttr(SENDFILE_SUPPORT, true).header(HttpHeaders.RANGE, "bytes=4-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(request().attribute(SENDFILE_FILENAME, (Object) null))
+                .andExpect(content().string(CONTENT.substring(4)));
+    }
+
+    @Test
+    void missingFilesAreNotFound() throws Exception {
+        mockMvc.perform(get("/api/files/flyers/missing.pdf"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void remoteStoresRedirectToAPresignedUrl() throws Exception {
+        URI presigned = URI.create("https://bucket.example.com/flyers/" + FILENAME + "?X-Amz-Signature=abc");
+        when(blobStore.presignedGet(anyString(), any(Duration.class))).thenReturn(Optional.of(presigned));
+
+        mockMvc.perform(get(URL))
+                .andExpect(status().isFound())
+                .andExpect(header().string(HttpHeaders.LOCATION, presigned.toString()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=150, private"));
+    }
+}
@@ -0,0 +1,131 @@
+package org.rotary.exchange.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.dto.CampCursor;
+import org.rotary.exchange.backend.dto.CampWithDistrictStatusDTO;
+import org.rotary.exchange.backend.model.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class CampInstanceRepositoryTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private CampInstanceRepository campInstanceRepository;
+
+    private District district;
+
+    @BeforeEach
+    void setUp() {
+        Country country = new Country(null, "Poland", true);
+        em.persist(country);
+
+        district = new District();
+        district.setCode("2231");
+        district.setCountry(country);
+        em.persist(district);
+
+        District otherDistrict = new District();
+        otherDistrict.setCode("2232");
+        otherDistrict.setCountry(country);
+        em.persist(otherDistrict);
+
+        Coordinator coordinator = new Coordinator("coordinator@rotary.org", "hash");
+        coordinator.setFirstName("John");
+        coordinator.setLastName("Smith");
+        coordinator.setDistrict(district);
+        em.persist(coordinator);
+
+        for (int i = 0; i < 15; i++) {
+            CampTemplate template = new CampTemplate();
+            template.setName("Camp " + i);
+            template.setOwner(coordinator);
+            em.persist(template);
+
+            CampInstance camp = new CampInstance();
+            camp.setCampTemplate(template);
+            camp.setCoordinator(coordinator);
+            camp.setDateStart(LocalDate.of(2025, 7, 1).plusDays(i));
+            camp.setGlobalStatus(i == 3 ? CampStatus.ARCHIVED : CampStatus.OPEN);
+            em.persist(camp);
+
+            if (i % 2 == 0) {
+                persistStatus(camp, district, CampStatus.ONLY_MALE);
+            }
+            if (i % 3 == 0) {
+                persistStatus(camp, otherDistrict, CampStatus.CLOSED);
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void findCampsForDistrictUsesConstantNumberOfStatements() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<CampWithDistrictStatusDTO> page = campInstanceRepository.findCampsForDistrict(
+                district.getId(), PageRequest.of(0, 12, Sort.by("dateStart")));
+
+        // One projected select for the page and one count query, regardless of page size
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(14, page.getTotalElements());
+        assertEquals(12, page.getContent().size());
+
+        CampWithDistrictStatusDTO first = page.getContent().get(0);
+        assertEquals("Camp 0", first.getName());
+        assertEquals("John Smith", first.getCoordinatorName());
+        assertEquals(CampStatus.ONLY_MALE, first.getLocalStatus());
+        // No status row for this district: falls back to the global status
+        assertEquals(CampStatus.OPEN, page.getContent().get(1).getLocalStatus());
+    }
+
+    @Test
+    void findCampsForDistrictAfterWalksAllCampsWithoutCounting() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<CampWithDistrictStatusDTO> seen = new ArrayList<>();
+        CampCursor cursor = null;
+        List<CampWithDistrictStatusDTO> slice;
+        do {
+            slice = campInstanceRepository.findCampsForDistrictAfter(district.getId(), cursor, 5);
+            seen.addAll(slice);
+            if (!slice.isEmpty()) {
+                cursor = CampCursor.after(slice.get(slice.size() - 1));
+            }
+        } while (slice.size() == 5);
+
+        // 14 non-archived camps in slices of 5, 5 and 4: one select per slice, no count query
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(14, seen.size());
+        assertEquals("Camp 0", seen.get(0).getName());
+        assertEquals("Camp 14", seen.get(13).getName());
+        assertEquals(cursor, CampCursor.decode(cursor.encode()));
+    }
+
+    private void persistStatus(CampInstance camp, District district, CampStatus status) {
+        CampDistrictStatus districtStatus = new CampDistrictStatus();
+        districtStatus.setCampInstance(camp);
+        districtStatus.setDistrict(district);
+        districtStatus.setLocalStatus(status);
+        em.persist(districtStatus);
+    }
+}
@@ -0,0 +1,88 @@
+package org.rotary.exchange.backend.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.model.Country;
+import org.rotary.exchange.backend.model.Role;
+import org.rotary.exchange.backend.model.RoleName;
+import org.rotary.exchange.backend.service.ReferenceDataCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reads of reference data outside a transaction, like the public list endpoints:
+ * repeated reads are served from the second-level and query caches.
+ */
+@DataJpaTest
+@Import(ReferenceDataCache.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        countryRepository.save(new Country(null, "Poland", true));
+        countryRepository.save(new Country(null, "Germany", true));
+        roleRepository.save(new Role(RoleName.ROLE_COORDINATOR));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        countryRepository.deleteAll();
+        roleRepository.deleteAll();
+        referenceDataCache.evictCountries();
+    }
+
+    @Test
+    void repeatedCountryListIsServedFromCache() {
+        countryRepository.findAll();
+        countryRepository.findAll();
+        roleRepository.findByName(RoleName.ROLE_COORDINATOR);
+        roleRepository.findByName(RoleName.ROLE_COORDINATOR);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void updatesAndEvictionAreVisibleToTheNextRead() {
+        Country country = countryRepository.findAll().get(0);
+        country.setName("Czechia");
+        countryRepository.save(country);
+
+        List<String> names = countryRepository.findAll().stream().map(Country::getName).toList();
+        assertEquals(List.of("Czechia", "Germany"), names.stream().sorted().toList());
+
+        referenceDataCache.evictCountries();
+        statistics.clear();
+        countryRepository.findAll();
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
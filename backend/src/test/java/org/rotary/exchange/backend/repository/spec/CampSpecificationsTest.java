@@ -0,0 +1,44 @@
+package org.rotary.exchange.backend.repository.spec;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CampSpecificationsTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiterString = "=>", value = {
+            "summer sail            => summer:* & sail:*",
+            "  Summer   SAIL  camp  => summer:* & sail:* & camp:*",
+            "sail, kayak; hike.     => sail:* & kayak:* & hike:*",
+            "rock'n'roll            => rock:* & n:* & roll:*",
+            "Żagle 2025             => żagle:* & 2025:*",
+    })
+    void buildsPrefixQueryFromTerms(String text, String expected) {
+        assertEquals(expected, CampSpecifications.toPrefixTsQuery(text));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiterString = "=>", value = {
+            "sail & kayak           => sail:* & kayak:*",
+            "sail | kayak           => sail:* & kayak:*",
+            "!sail                  => sail:*",
+            "sail:*                 => sail:*",
+            "sail:A                 => sail:* & a:*",
+            "(sail <-> kayak)       => sail:* & kayak:*",
+    })
+    void stripsTsQueryOperators(String text, String expected) {
+        assertEquals(expected, CampSpecifications.toPrefixTsQuery(text));
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", "   ", "&|!:*", "()<->'\"", "\t\n"})
+    void returnsNullWithoutSearchableTerms(String text) {
+        assertNull(CampSpecifications.toPrefixTsQuery(text));
+    }
+}
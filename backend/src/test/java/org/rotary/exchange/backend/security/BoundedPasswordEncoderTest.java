@@ -0,0 +1,102 @@
+package org.rotary.exchange.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.exception.ServiceBusyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Admission to the hashing pool, with a delegate that blocks until released instead of BCrypt.
+ */
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger hashing = new AtomicInteger();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.destroy();
+    }
+
+    @Test
+    void acceptsThreadsPlusQueueCapacityAndRejectsTheRest() throws Exception {
+        // Two hashing threads and two queue slots: four of ten concurrent logins get in
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 2, 2, 10_000, meterRegistry);
+
+        ExecutorService callers = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<Boolean>> logins = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                logins.add(callers.submit(() -> encoder.matches("password", "hash")));
+            }
+
+            // The rejections are immediate, while the admitted hashes are still blocked
+            while (rejected() < 6 || hashing.get() < 2) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, hashing.get());
+            release.countDown();
+
+            int succeeded = 0;
+            int busy = 0;
+            for (Future<Boolean> login : logins) {
+                try {
+                    assertTrue(login.get(10, TimeUnit.SECONDS));
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ServiceBusyException.class, e.getCause());
+                    busy++;
+                }
+            }
+            assertEquals(4, succeeded);
+            assertEquals(6, busy);
+            assertEquals(6, rejected());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void hashesWaitingLongerThanTheTimeoutAreRejected() {
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 1, 1, 100, meterRegistry);
+
+        ServiceBusyException error = assertThrows(ServiceBusyException.class,
+                () -> encoder.matches("password", "hash"));
+
+        assertEquals(1, error.getRetryAfterSeconds());
+        assertEquals(1, rejected());
+    }
+
+    private PasswordEncoder blockingDelegate() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(any(), anyString())).thenAnswer(invocation -> {
+            hashing.incrementAndGet();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        return delegate;
+    }
+
+    private double rejected() {
+        return meterRegistry.get("password.hash.rejected").counter().count();
+    }
+}
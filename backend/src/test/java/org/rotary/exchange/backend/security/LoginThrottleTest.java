@@ -0,0 +1,151 @@
+package org.rotary.exchange.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.exception.TooManyRequestsException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Failure windows on a clock the test moves: 100 second windows, 5 failures per email and
+ * 20 per IP, starting at the beginning of a fixed window.
+ */
+class LoginThrottleTest {
+
+    private static final String EMAIL = "coordinator@rotary.org";
+    private static final String IP = "203.0.113.7";
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.ofEpochSecond(1_000_000));
+    private LoginThrottle throttle = new LoginThrottle(meterRegistry, 100, 5, 20, 1000, clock);
+
+    @Test
+    void rejectsAnEmailAtTheLimitUntilTheWindowEnds() {
+        fail(EMAIL, IP, 4);
+        throttle.check(EMAIL, IP);
+
+        fail(EMAIL, IP, 1);
+        clock.advance(Duration.ofSeconds(30));
+        TooManyRequestsException error = assertThrows(TooManyRequestsException.class, () -> throttle.check(EMAIL, IP));
+        assertEquals(70, error.getRetryAfterSeconds());
+
+        // Emails are compared case-insensitively; other emails from the same IP are unaffected
+        assertThrows(TooManyRequestsException.class, () -> throttle.check(" Coordinator@Rotary.org", "198.51.100.1"));
+        throttle.check("other@rotary.org", IP);
+    }
+
+    @Test
+    void previousWindowFailuresFadeOutLinearly() {
+        clock.advance(Duration.ofSeconds(90));
+        fail(EMAIL, null, 6);
+
+        // 10 s into the next window the previous one still weighs 0.9: 6 * 0.9 = 5.4
+        clock.advance(Duration.ofSeconds(20));
+        assertThrows(TooManyRequestsException.class, () -> throttle.check(EMAIL, null));
+
+        // 20 s in: 6 * 0.8 = 4.8
+        clock.advance(Duration.ofSeconds(10));
+        throttle.check(EMAIL, null);
+
+        // A new failure counts fully: 4.8 + 1
+        fail(EMAIL, null, 1);
+        assertThrows(TooManyRequestsException.class, () -> throttle.check(EMAIL, null));
+
+        // Two windows later nothing is left
+        clock.advance(Duration.ofSeconds(200));
+        throttle.check(EMAIL, null);
+    }
+
+    @Test
+    void successClearsTheEmailButNotTheIp() {
+        for (int i = 0; i < 20; i++) {
+            fail("user" + i + "@rotary.org", IP, 1);
+        }
+        fail(EMAIL, IP, 4);
+
+        throttle.recordSuccess(EMAIL);
+
+        assertEquals(20, keys("email"));
+        TooManyRequestsException error = assertThrows(TooManyRequestsException.class, () -> throttle.check(EMAIL, IP));
+        assertEquals(100, error.getRetryAfterSeconds());
+        throttle.check(EMAIL, "198.51.100.1");
+    }
+
+    @Test
+    void stopsTrackingNewKeysAtTheCap() {
+        meterRegistry = new SimpleMeterRegistry();
+        throttle = new LoginThrottle(meterRegistry, 100, 5, 20, 2, clock);
+
+        fail("a@rotary.org", null, 1);
+        fail("b@rotary.org", null, 1);
+        fail("c@rotary.org", null, 5);
+
+        assertEquals(2, keys("email"));
+        throttle.check("c@rotary.org", null);
+
+        // Keys already tracked keep counting
+        fail("a@rotary.org", null, 4);
+        assertThrows(TooManyRequestsException.class, () -> throttle.check("a@rotary.org", null));
+    }
+
+    @Test
+    void sweepDropsEntriesOnlyOnceBothWindowsHavePassed() {
+        fail(EMAIL, IP, 1);
+        clock.advance(Duration.ofSeconds(150));
+        fail("other@rotary.org", null, 1);
+
+        clock.advance(Duration.ofSeconds(49));
+        throttle.sweep();
+        assertEquals(2, keys("email"));
+        assertEquals(1, keys("ip"));
+
+        clock.advance(Duration.ofSeconds(1));
+        throttle.sweep();
+        assertEquals(1, keys("email"));
+        assertEquals(0, keys("ip"));
+    }
+
+    private void fail(String email, String ip, int times) {
+        for (int i = 0; i < times; i++) {
+            throttle.recordFailure(email, ip);
+        }
+    }
+
+    private double keys(String scope) {
+        return meterRegistry.get("auth.login.throttle.keys").tag("scope", scope).gauge().value();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.rotary.exchange.backend.security.jwt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.security.service.UserDetailsServiceImpl;
+import org.rotary.exchange.backend.security.service.UserPrinciple;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtAuthTokenFilterTest {
+
+    private JwtProvider jwtProvider;
+    private VerifiedTokenCache verifiedTokenCache;
+    private StaleClaimsRegistry staleClaimsRegistry;
+    private UserDetailsServiceImpl userDetailsService;
+    private JwtAuthTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JwtProvider provider = new JwtProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", "YourSecretKeyMustBeAtLeast256BitsLongForHS256Algorithm12345");
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 900);
+        provider.init();
+        jwtProvider = spy(provider);
+
+        verifiedTokenCache = mock(VerifiedTokenCache.class);
+        staleClaimsRegistry = mock(StaleClaimsRegistry.class);
+        userDetailsService = mock(UserDetailsServiceImpl.class);
+
+        filter = new JwtAuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", jwtProvider);
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(filter, "staleClaimsRegistry", staleClaimsRegistry);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenIsVerifiedAndParsedOncePerRequest() throws Exception {
+        String token = jwtProvider.generateToken(coordinator(3));
+        clearInvocations(jwtProvider);
+
+        UserPrinciple principal = filter(token);
+
+        assertEquals(1, principal.getId());
+        assertEquals(7, principal.getDistrictId());
+        assertEquals("2231", principal.getDistrictCode());
+        assertEquals(3, principal.getClaimsVersion());
+        verify(jwtProvider, times(1)).parseVerifiedClaims(token);
+        verify(jwtProvider, never()).getClaimsFromToken(anyString());
+        verify(jwtProvider, never()).validateJwtToken(anyString());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void cachedTokenIsNotParsedAgain() throws Exception {
+        String token = jwtProvider.generateToken(coordinator(0));
+        UserPrinciple cached = coordinator(0);
+        when(verifiedTokenCache.get(token)).thenReturn(cached);
+        clearInvocations(jwtProvider);
+
+        assertEquals(cached, filter(token));
+        verify(jwtProvider, never()).parseVerifiedClaims(anyString());
+    }
+
+    @Test
+    void tokenWithOutdatedClaimsIsRefused() throws Exception {
+        String token = jwtProvider.generateToken(coordinator(3));
+        when(staleClaimsRegistry.isStale(1, 3)).thenReturn(true);
+
+        assertNull(filter(token));
+        verifyNoInteractions(userDetailsService);
+        verify(verifiedTokenCache, never()).put(anyString(), any(), any());
+    }
+
+    @Test
+    void tokenWithoutEmbeddedClaimsIsLoadedFromDatabase() throws Exception {
+        String token = jwtProvider.generateTokenFromEmail("coordinator@rotary.org");
+        when(userDetailsService.loadUserByUsername("coordinator@rotary.org")).thenReturn(coordinator(0));
+
+        assertEquals(1, filter(token).getId());
+        verify(userDetailsService).loadUserByUsername("coordinator@rotary.org");
+    }
+
+    @Test
+    void invalidTokenLeavesRequestUnauthenticated() throws Exception {
+        assertNull(filter("not-a-jwt"));
+        verify(verifiedTokenCache, never()).put(anyString(), any(), any());
+    }
+
+    private static UserPrinciple coordinator(int claimsVersion) {
+        return new UserPrinciple(1, "coordinator@rotary.org", null, null, 7, "2231", claimsVersion, null,
+                List.of(new SimpleGrantedAuthority("ROLE_COORDINATOR")));
+    }
+
+    private UserPrinciple filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/camps/district");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? (UserPrinciple) authentication.getPrincipal() : null;
+    }
+}
@@ -0,0 +1,117 @@
+package org.rotary.exchange.backend.security.jwt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.model.Coordinator;
+import org.rotary.exchange.backend.model.Country;
+import org.rotary.exchange.backend.model.District;
+import org.rotary.exchange.backend.repository.CoordinatorRepository;
+import org.rotary.exchange.backend.repository.CountryRepository;
+import org.rotary.exchange.backend.repository.DistrictRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Invalidations are committed like in production; a second registry on the same database
+ * stands in for another node.
+ */
+@DataJpaTest
+@Import(StaleClaimsRegistry.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StaleClaimsRegistryTest {
+
+    @Autowired
+    private StaleClaimsRegistry registry;
+
+    @Autowired
+    private CoordinatorRepository coordinatorRepository;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private District district;
+    private Coordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        Country country = countryRepository.save(new Country(null, "Poland", true));
+        district = new District();
+        district.setCode("2231");
+        district.setCountry(country);
+        district = districtRepository.save(district);
+
+        coordinator = new Coordinator("coordinator@rotary.org", "hash");
+        coordinator.setDistrict(district);
+        coordinator = coordinatorRepository.save(coordinator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coordinatorRepository.deleteAll();
+        districtRepository.deleteAll();
+        countryRepository.deleteAll();
+    }
+
+    @Test
+    void invalidationRefusesOnlyOlderVersions() {
+        assertFalse(registry.isStale(coordinator.getId(), 0));
+
+        registry.invalidate(coordinator.getId());
+
+        assertTrue(registry.isStale(coordinator.getId(), 0));
+        // A token issued after the change carries the new version
+        assertFalse(registry.isStale(coordinator.getId(), 1));
+    }
+
+    @Test
+    void otherNodesPickUpInvalidationOnSync() {
+        StaleClaimsRegistry otherNode = new StaleClaimsRegistry(coordinatorRepository, 900);
+        otherNode.load();
+
+        registry.invalidate(coordinator.getId());
+        assertFalse(otherNode.isStale(coordinator.getId(), 0));
+
+        otherNode.sync();
+        assertTrue(otherNode.isStale(coordinator.getId(), 0));
+
+        // and a node started afterwards loads it on startup
+        StaleClaimsRegistry restarted = new StaleClaimsRegistry(coordinatorRepository, 900);
+        restarted.load();
+        assertTrue(restarted.isStale(coordinator.getId(), 0));
+    }
+
+    @Test
+    void districtInvalidationCoversItsCoordinators() {
+        registry.invalidateDistrict(district.getId());
+
+        assertTrue(registry.isStale(coordinator.getId(), 0));
+    }
+
+    @Test
+    void rolledBackChangeDoesNotInvalidate() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            registry.invalidate(coordinator.getId());
+            status.setRollbackOnly();
+        });
+
+        assertFalse(registry.isStale(coordinator.getId(), 0));
+        registry.sync();
+        assertFalse(registry.isStale(coordinator.getId(), 0));
+    }
+}
@@ -0,0 +1,57 @@
+package org.rotary.exchange.backend.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.security.service.UserPrinciple;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VerifiedTokenCacheTest {
+
+    private StaleClaimsRegistry staleClaims;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        staleClaims = mock(StaleClaimsRegistry.class);
+        cache = new VerifiedTokenCache(2, new SimpleMeterRegistry(), staleClaims);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+    }
+
+    @Test
+    void servesTokenUntilItExpires() {
+        UserPrinciple principal = principal(1);
+        cache.put("valid", principal, inSeconds(60));
+        cache.put("expired", principal, inSeconds(-1));
+
+        assertEquals(principal, cache.get("valid"));
+        assertNull(cache.get("expired"));
+        assertNull(cache.get("unknown"));
+    }
+
+    @Test
+    void tokenWithInvalidatedClaimsIsDropped() {
+        cache.put("token", principal(1), inSeconds(60));
+        when(staleClaims.isStale(1, 0)).thenReturn(true);
+
+        assertNull(cache.get("token"));
+        when(staleClaims.isStale(1, 0)).thenReturn(false);
+        assertNull(cache.get("token"));
+    }
+
+    private static UserPrinciple principal(int id) {
+        return new UserPrinciple(id, "coordinator" + id + "@rotary.org", null, null, null, null, 0, null, List.of());
+    }
+
+    private static Date inSeconds(int seconds) {
+        return new Date(System.currentTimeMillis() + seconds * 1000L);
+    }
+}
@@ -0,0 +1,139 @@
+package org.rotary.exchange.backend.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.dto.BatchStatusUpdateRequest;
+import org.rotary.exchange.backend.dto.BatchStatusUpdateResult;
+import org.rotary.exchange.backend.model.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(DistrictStatusService.class)
+class DistrictStatusServiceTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DistrictStatusService districtStatusService;
+
+    private final List<District> districts = new ArrayList<>();
+    private Coordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        Country country = new Country(null, "Poland", true);
+        em.persist(country);
+
+        coordinator = new Coordinator("coordinator@rotary.org", "hash");
+        em.persist(coordinator);
+
+        // One district per possible local status, plus one without a status
+        for (int i = 0; i <= CampStatus.values().length; i++) {
+            District district = new District();
+            district.setCode("22" + i);
+            district.setCountry(country);
+            em.persist(district);
+            districts.add(district);
+        }
+    }
+
+    @Test
+    void bulkRecalculationMatchesIntersectionRule() {
+        List<CampStatus> locals = new ArrayList<>(Arrays.asList(CampStatus.values()));
+        locals.add(null);
+
+        for (CampStatus global : CampStatus.values()) {
+            CampInstance camp = persistCamp(locals);
+
+            int expectedChanges = 0;
+            for (CampStatus local : locals) {
+                if (DistrictStatusService.calculateIntersection(global, local) != local) {
+                    expectedChanges++;
+                }
+            }
+
+            int changed = districtStatusService.recalculateAllLocalStatuses(camp.getId(), global);
+            em.clear();
+
+            assertEquals(expectedChanges, changed, "changed rows for global " + global);
+            for (int i = 0; i < locals.size(); i++) {
+                CampStatus expected = DistrictStatusService.calculateIntersection(global, locals.get(i));
+                CampDistrictStatus status = em.createQuery(
+                                "SELECT s FROM CampDistrictStatus s WHERE s.campInstance.id = :camp AND s.district.id = :district",
+                                CampDistrictStatus.class)
+                        .setParameter("camp", camp.getId())
+                        .setParameter("district", districts.get(i).getId())
+                        .getSingleResult();
+
+                assertEquals(expected, status.getLocalStatus(), "global " + global + ", local " + locals.get(i));
+                assertEquals(expected.isAvailable(), status.isAvailable(), "available for global " + global + ", local " + locals.get(i));
+            }
+        }
+    }
+
+    @Test
+    void batchUpdateAppliesValidItemsAndReportsRejectedOnes() {
+        CampInstance camp = persistCamp(List.of(CampStatus.OPEN));
+        Integer first = districts.get(0).getId();
+        Integer second = districts.get(1).getId();
+
+        BatchStatusUpdateResult result = districtStatusService.updateLocalStatusesBatch(List.of(
+                new BatchStatusUpdateRequest.Item(camp.getId(), first, CampStatus.ONLY_MALE),
+                new BatchStatusUpdateRequest.Item(camp.getId(), second, CampStatus.ONLY_FEMALE),
+                new BatchStatusUpdateRequest.Item(camp.getId(), second, CampStatus.CLOSED),
+                new BatchStatusUpdateRequest.Item(-1, first, CampStatus.OPEN),
+                new BatchStatusUpdateRequest.Item(camp.getId(), first, null)
+        ), null);
+        em.clear();
+
+        assertEquals(2, result.getUpdated());
+        assertEquals(3, result.getFailed());
+        assertEquals("Duplicate camp and district in batch", result.getResults().get(2).getError());
+        assertEquals("Camp with id -1 not found", result.getResults().get(3).getError());
+        assertEquals(CampStatus.ONLY_MALE, districtStatusService.getStatus(camp.getId(), first).getLocalStatus());
+        // Missing row was created
+        CampDistrictStatus created = districtStatusService.getStatus(camp.getId(), second);
+        assertEquals(CampStatus.ONLY_FEMALE, created.getLocalStatus());
+        assertTrue(created.isAvailable());
+
+        // Coordinators are limited to their own district
+        BatchStatusUpdateResult restricted = districtStatusService.updateLocalStatusesBatch(List.of(
+                new BatchStatusUpdateRequest.Item(camp.getId(), second, CampStatus.OPEN)), first);
+        assertEquals(0, restricted.getUpdated());
+    }
+
+    private CampInstance persistCamp(List<CampStatus> locals) {
+        CampTemplate template = new CampTemplate();
+        template.setName("Camp");
+        template.setOwner(em.find(Coordinator.class, coordinator.getId()));
+        em.persist(template);
+
+        CampInstance camp = new CampInstance();
+        camp.setCampTemplate(template);
+        camp.setDateStart(LocalDate.of(2025, 7, 1));
+        camp.setGlobalStatus(CampStatus.OPEN);
+        em.persist(camp);
+
+        for (int i = 0; i < locals.size(); i++) {
+            CampDistrictStatus status = new CampDistrictStatus();
+            status.setCampInstance(camp);
+            status.setDistrict(em.find(District.class, districts.get(i).getId()));
+            status.setLocalStatus(locals.get(i));
+            em.persist(status);
+        }
+        em.flush();
+        return camp;
+    }
+}
@@ -0,0 +1,115 @@
+package org.rotary.exchange.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.model.StoredFile;
+import org.rotary.exchange.backend.repository.StoredFileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cleanup of content-addressed files racing with an upload of the same content.
+ */
+@DataJpaTest
+@Import({FileCleanupService.class, FileRegistryService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FileCleanupServiceTest {
+
+    private static final String URL = "/uploads/images/" + "a".repeat(64) + ".png";
+    private static final String HASH = "a".repeat(64);
+
+    @Autowired
+    private FileCleanupService fileCleanupService;
+
+    @Autowired
+    private FileRegistryService fileRegistry;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @MockitoBean
+    private FileStorageService fileStorageService;
+
+    @AfterEach
+    void tearDown() {
+        storedFileRepository.deleteAll();
+    }
+
+    @Test
+    void orphanedContentIsDeletedAndForgotten() {
+        saveUploadedAgo(Duration.ofHours(2));
+        when(fileStorageService.deleteFile(URL)).thenReturn(true);
+
+        assertTrue(fileCleanupService.cleanupIfUnused(URL, FileCleanupService.FileType.IMAGE));
+        assertTrue(storedFileRepository.findByUrl(URL).isEmpty());
+    }
+
+    @Test
+    void contentUploadedAgainIsKept() {
+        saveUploadedAgo(Duration.ofHours(2));
+        fileRegistry.registerContent(URL, HASH);
+
+        assertFalse(fileCleanupService.cleanupIfUnused(URL, FileCleanupService.FileType.IMAGE));
+        verify(fileStorageService, never()).deleteFile(anyString());
+        assertTrue(storedFileRepository.findByUrl(URL).isPresent());
+    }
+
+    @Test
+    void uploadDuringCleanupWaitsAndRegistersTheFileAgain() throws Exception {
+        saveUploadedAgo(Duration.ofHours(2));
+
+        CountDownLatch deleting = new CountDownLatch(1);
+        CountDownLatch finishDelete = new CountDownLatch(1);
+        when(fileStorageService.deleteFile(URL)).thenAnswer(invocation -> {
+            deleting.countDown();
+            assertTrue(finishDelete.await(10, TimeUnit.SECONDS));
+            return true;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> cleanup = executor.submit(
+                    () -> fileCleanupService.cleanupIfUnused(URL, FileCleanupService.FileType.IMAGE));
+            assertTrue(deleting.await(10, TimeUnit.SECONDS));
+
+            // The same content is uploaded while the blob is being deleted
+            Future<?> upload = executor.submit(() -> fileRegistry.registerContent(URL, HASH));
+            Thread.sleep(300);
+            assertFalse(upload.isDone(), "upload must wait for the cleanup holding the entry");
+
+            finishDelete.countDown();
+            assertTrue(cleanup.get(10, TimeUnit.SECONDS));
+            upload.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Registered after the delete: the upload stores the blob again and cleanup keeps it
+        StoredFile file = storedFileRepository.findByUrl(URL).orElseThrow();
+        assertEquals(HASH, file.getContentHash());
+        assertTrue(file.getLastUploadedAt().isAfter(Instant.now().minus(Duration.ofMinutes(1))));
+    }
+
+    private void saveUploadedAgo(Duration age) {
+        StoredFile file = new StoredFile(URL, 0);
+        file.setContentHash(HASH);
+        file.setLastUploadedAt(Instant.now().minus(age));
+        storedFileRepository.save(file);
+    }
+}
@@ -0,0 +1,168 @@
+package org.rotary.exchange.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.model.FileCleanupTask;
+import org.rotary.exchange.backend.repository.FileCleanupTaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Draining the cleanup queue with a file service that fails on demand. Claims and updates are
+ * committed, like in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FileCleanupWorkerTest {
+
+    private static final String URL = "/uploads/images/a.png";
+
+    @Autowired
+    private FileCleanupTaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private FileCleanupService fileCleanupService;
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionTemplate transactionTemplate;
+    private FileCleanupWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        fileCleanupService = mock(FileCleanupService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        worker = new FileCleanupWorker(taskRepository, fileCleanupService, meterRegistry, transactionTemplate);
+        ReflectionTestUtils.setField(worker, "batchSize", 10);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 5);
+        ReflectionTestUtils.setField(worker, "retryDelaySeconds", 30L);
+        ReflectionTestUtils.setField(worker, "leaseSeconds", 300L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void finishedTasksAreRemoved() {
+        taskRepository.save(new FileCleanupTask(URL, FileCleanupService.FileType.IMAGE));
+        when(fileCleanupService.cleanupIfUnused(URL, FileCleanupService.FileType.IMAGE)).thenReturn(true);
+
+        worker.drain();
+
+        assertEquals(0, taskRepository.count());
+        assertEquals(1, count("deleted"));
+    }
+
+    @Test
+    void failuresAreRetriedWithExponentialBackoff() {
+        taskRepository.save(new FileCleanupTask(URL, FileCleanupService.FileType.IMAGE));
+        when(fileCleanupService.cleanupIfUnused(anyString(), any()))
+                .thenThrow(new RuntimeException("disk full"))
+                .thenThrow(new RuntimeException("disk full"))
+                .thenReturn(true);
+
+        assertRescheduledAfter(Duration.ofSeconds(30), 1);
+        makeDue();
+        assertRescheduledAfter(Duration.ofSeconds(60), 2);
+        assertEquals("disk full", onlyTask().getLastError());
+
+        makeDue();
+        worker.drain();
+        assertEquals(0, taskRepository.count());
+        assertEquals(2, count("retried"));
+        assertEquals(1, count("deleted"));
+    }
+
+    @Test
+    void backoffIsCappedAtOneHour() {
+        FileCleanupTask task = new FileCleanupTask(URL, FileCleanupService.FileType.IMAGE);
+        task.setAttempts(3);
+        taskRepository.save(task);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 20);
+        ReflectionTestUtils.setField(worker, "retryDelaySeconds", 600L);
+        when(fileCleanupService.cleanupIfUnused(anyString(), any())).thenThrow(new RuntimeException("timeout"));
+
+        assertRescheduledAfter(Duration.ofHours(1), 4);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        FileCleanupTask task = new FileCleanupTask(URL, FileCleanupService.FileType.IMAGE);
+        task.setAttempts(4);
+        taskRepository.save(task);
+        when(fileCleanupService.cleanupIfUnused(anyString(), any())).thenThrow(new RuntimeException("gone wrong"));
+
+        worker.drain();
+
+        assertEquals(0, taskRepository.count());
+        assertEquals(1, count("failed"));
+        assertEquals(0, count("retried"));
+    }
+
+    @Test
+    void claimedTasksAreHiddenFromOtherInstancesWhileProcessed() {
+        taskRepository.save(new FileCleanupTask(URL, FileCleanupService.FileType.IMAGE));
+        taskRepository.save(new FileCleanupTask("/uploads/flyers/b.pdf", FileCleanupService.FileType.FLYER));
+
+        List<Integer> seenByOthers = new ArrayList<>();
+        when(fileCleanupService.cleanupIfUnused(anyString(), any())).thenAnswer(invocation -> {
+            seenByOthers.add(transactionTemplate.execute(status ->
+                    taskRepository.claimDue(Instant.now(), PageRequest.of(0, 10)).size()));
+            return true;
+        });
+
+        worker.drain();
+
+        assertEquals(List.of(0, 0), seenByOthers);
+        assertEquals(0, taskRepository.count());
+    }
+
+    private void assertRescheduledAfter(Duration backoff, int attempts) {
+        Instant before = Instant.now();
+        worker.drain();
+        Instant after = Instant.now();
+
+        FileCleanupTask task = onlyTask();
+        assertEquals(attempts, task.getAttempts());
+        assertFalse(task.getNextAttemptAt().isBefore(before.plus(backoff).minusMillis(1)));
+        assertFalse(task.getNextAttemptAt().isAfter(after.plus(backoff).plusMillis(1)));
+    }
+
+    private void makeDue() {
+        FileCleanupTask task = onlyTask();
+        task.setNextAttemptAt(Instant.now().minusSeconds(1));
+        taskRepository.save(task);
+    }
+
+    private FileCleanupTask onlyTask() {
+        List<FileCleanupTask> tasks = taskRepository.findAll();
+        assertEquals(1, tasks.size());
+        return tasks.get(0);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("file.cleanup.tasks").tag("result", result).counter().count();
+    }
+}
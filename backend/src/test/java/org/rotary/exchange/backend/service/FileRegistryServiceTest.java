@@ -0,0 +1,275 @@
+package org.rotary.exchange.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.model.CampTemplate;
+import org.rotary.exchange.backend.model.Coordinator;
+import org.rotary.exchange.backend.model.FileCleanupTask;
+import org.rotary.exchange.backend.model.StoredFile;
+import org.rotary.exchange.backend.repository.CampTemplateRepository;
+import org.rotary.exchange.backend.repository.CoordinatorRepository;
+import org.rotary.exchange.backend.repository.FileCleanupTaskRepository;
+import org.rotary.exchange.backend.repository.StoredFileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reference count transitions of the file registry, each call committed like in production.
+ */
+@DataJpaTest
+@Import(FileRegistryService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FileRegistryServiceTest {
+
+    private static final String IMAGE = "/uploads/images/a.png";
+    private static final String OTHER_IMAGE = "/uploads/images/b.png";
+    private static final String FLYER = "/uploads/flyers/c.pdf";
+    private static final String HASH = "a".repeat(64);
+
+    @Autowired
+    private FileRegistryService fileRegistry;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private FileCleanupTaskRepository cleanupTaskRepository;
+
+    @Autowired
+    private CampTemplateRepository templateRepository;
+
+    @Autowired
+    private CoordinatorRepository coordinatorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        ReflectionTestUtils.setField(fileRegistry, "reconcileBatchSize", 2);
+        ReflectionTestUtils.setField(fileRegistry, "orphanGraceHours", 24L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        templateRepository.deleteAll();
+        coordinatorRepository.deleteAll();
+        cleanupTaskRepository.deleteAll();
+        storedFileRepository.deleteAll();
+    }
+
+    @Test
+    void acquireAndReleaseCountReferences() {
+        fileRegistry.register(IMAGE);
+
+        fileRegistry.acquire(IMAGE);
+        fileRegistry.acquire(IMAGE);
+        assertEquals(2, refCount(IMAGE));
+
+        fileRegistry.release(IMAGE);
+        assertEquals(1, refCount(IMAGE));
+    }
+
+    @Test
+    void releaseNeverGoesBelowZero() {
+        fileRegistry.register(IMAGE);
+
+        fileRegistry.release(IMAGE);
+        fileRegistry.release(IMAGE);
+
+        assertEquals(0, refCount(IMAGE));
+    }
+
+    @Test
+    void blankAndUntrackedUrlsAreIgnored() {
+        fileRegistry.acquire(null);
+        fileRegistry.acquire(" ");
+        fileRegistry.acquire(IMAGE);
+        fileRegistry.release(IMAGE);
+
+        assertEquals(0, storedFileRepository.count());
+    }
+
+    @Test
+    void replaceAcquiresOnlyTheNewFile() {
+        fileRegistry.register(IMAGE);
+        fileRegistry.register(OTHER_IMAGE);
+        fileRegistry.acquire(IMAGE);
+
+        fileRegistry.replace(IMAGE, IMAGE);
+        assertEquals(1, refCount(IMAGE));
+
+        // The old file is released by FileCleanupService.scheduleCleanup
+        fileRegistry.replace(IMAGE, OTHER_IMAGE);
+        assertEquals(1, refCount(IMAGE));
+        assertEquals(1, refCount(OTHER_IMAGE));
+    }
+
+    @Test
+    void orphanedOnlyWithoutReferences() {
+        fileRegistry.register(IMAGE);
+        assertEquals(Optional.of(true), isOrphaned(IMAGE));
+
+        fileRegistry.acquire(IMAGE);
+        assertEquals(Optional.of(false), isOrphaned(IMAGE));
+        assertEquals(Optional.empty(), isOrphaned(OTHER_IMAGE));
+    }
+
+    @Test
+    void recentlyUploadedContentIsNotOrphaned() {
+        StoredFile file = new StoredFile(IMAGE, 0);
+        file.setLastUploadedAt(Instant.now().minus(Duration.ofHours(2)));
+        file.setContentHash(HASH);
+        storedFileRepository.save(file);
+        assertEquals(Optional.of(true), isOrphaned(IMAGE));
+
+        fileRegistry.registerContent(IMAGE, HASH);
+
+        assertEquals(Optional.of(false), isOrphaned(IMAGE));
+    }
+
+    @Test
+    void concurrentFirstUploadsOfTheSameContentBothSucceed() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The first upload has inserted the entry but not committed yet
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                storedFileRepository.saveAndFlush(new StoredFile(IMAGE, 0));
+                inserted.countDown();
+                await(commit);
+            }));
+            assertTrue(inserted.await(10, TimeUnit.SECONDS));
+
+            // The second one does not see it, and its insert waits on the unique URL
+            Future<?> second = executor.submit(() -> fileRegistry.registerContent(IMAGE, HASH));
+            Thread.sleep(300);
+            commit.countDown();
+
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, storedFileRepository.count());
+        assertEquals(HASH, storedFileRepository.findByUrl(IMAGE).orElseThrow().getContentHash());
+    }
+
+    @Test
+    void reconcileFixesCountsAcrossBatches() {
+        // Five registry rows with a batch size of two: three batches
+        Coordinator coordinator = new Coordinator("coordinator@rotary.org", "hash");
+        coordinator.setProfilePictureUrl(IMAGE);
+        coordinatorRepository.save(coordinator);
+        templateRepository.save(new CampTemplate(null, null, "Sail", null, 15, 18, IMAGE, FLYER));
+        templateRepository.save(new CampTemplate(null, null, "Hike", null, 15, 18, OTHER_IMAGE, null));
+
+        storedFileRepository.save(new StoredFile(IMAGE, 0));
+        storedFileRepository.save(new StoredFile(OTHER_IMAGE, 5));
+        storedFileRepository.save(new StoredFile("/uploads/images/d.png", 0));
+        storedFileRepository.save(new StoredFile("/uploads/images/e.png", 1));
+        StoredFile abandoned = new StoredFile("/uploads/images/abandoned.png", 0);
+        abandoned.setCreatedAt(Instant.now().minus(Duration.ofDays(2)));
+        abandoned.setLastUploadedAt(abandoned.getCreatedAt());
+        storedFileRepository.save(abandoned);
+
+        fileRegistry.reconcile();
+
+        assertEquals(2, refCount(IMAGE));
+        assertEquals(1, refCount(OTHER_IMAGE));
+        assertEquals(0, refCount("/uploads/images/d.png"));
+        assertEquals(0, refCount("/uploads/images/e.png"));
+        // Referenced but missing from the registry
+        assertEquals(1, refCount(FLYER));
+        // Unreferenced past the grace period; d.png and e.png are too recent
+        assertEquals(List.of("/uploads/images/abandoned.png"),
+                cleanupTaskRepository.findAll().stream().map(FileCleanupTask::getUrl).toList());
+    }
+
+    @Test
+    void reconcileDoesNotQueueAnOrphanTwice() {
+        StoredFile abandoned = new StoredFile(IMAGE, 0);
+        abandoned.setCreatedAt(Instant.now().minus(Duration.ofDays(2)));
+        abandoned.setLastUploadedAt(abandoned.getCreatedAt());
+        storedFileRepository.save(abandoned);
+
+        fileRegistry.reconcile();
+        fileRegistry.reconcile();
+
+        assertEquals(1, cleanupTaskRepository.count());
+    }
+
+    @Test
+    void reconcileDoesNotOverwriteAReferenceAcquiredWhileItRuns() throws Exception {
+        fileRegistry.reconcile();
+        // Drifted: recorded 5, referenced nowhere
+        storedFileRepository.save(new StoredFile(IMAGE, 5));
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // A template is being saved: its reference and the counter change are not committed yet
+            Future<?> save = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                templateRepository.save(new CampTemplate(null, null, "Sail", null, 15, 18, IMAGE, null));
+                fileRegistry.acquire(IMAGE);
+                acquired.countDown();
+                await(commit);
+            }));
+            assertTrue(acquired.await(10, TimeUnit.SECONDS));
+
+            Future<?> reconcile = executor.submit(fileRegistry::reconcile);
+            Thread.sleep(500);
+            assertFalse(reconcile.isDone(), "reconcile must wait for the entry's pending reference change");
+
+            commit.countDown();
+            save.get(10, TimeUnit.SECONDS);
+            reconcile.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Recounted after the save committed, not reset to the count from before it
+        assertEquals(1, refCount(IMAGE));
+    }
+
+    private Optional<Boolean> isOrphaned(String url) {
+        return transactionTemplate.execute(status -> fileRegistry.isOrphaned(url));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int refCount(String url) {
+        return storedFileRepository.findByUrl(url).orElseThrow().getRefCount();
+    }
+}
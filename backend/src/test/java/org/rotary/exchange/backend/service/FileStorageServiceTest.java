@@ -0,0 +1,178 @@
+package org.rotary.exchange.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Upload validation and the bounded streaming copy, against a local blob store in a temporary directory.
+ */
+class FileStorageServiceTest {
+
+    private static final byte[] PNG = bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D);
+    private static final long MAX_SIZE = 20_000;
+
+    @TempDir
+    Path root;
+
+    private Path uploadDir;
+
+    private BlobStore blobStore;
+    private FileRegistryService fileRegistry;
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        uploadDir = root.resolve("uploads");
+        LocalBlobStore localBlobStore = new LocalBlobStore();
+        ReflectionTestUtils.setField(localBlobStore, "uploadDir", uploadDir.toString());
+        localBlobStore.init();
+        blobStore = spy(localBlobStore);
+        fileRegistry = mock(FileRegistryService.class);
+
+        fileStorageService = new FileStorageService(fileRegistry, blobStore);
+        ReflectionTestUtils.setField(fileStorageService, "maxFileSize", MAX_SIZE);
+    }
+
+    @Test
+    void recognisesSupportedFormatsByMagicBytes() {
+        assertEquals("image/jpeg", FileStorageService.sniffContentType(bytes(0xFF, 0xD8, 0xFF, 0xE0)));
+        assertEquals("image/png", FileStorageService.sniffContentType(PNG));
+        assertEquals("image/gif", FileStorageService.sniffContentType(bytes('G', 'I', 'F', '8', '7', 'a')));
+        assertEquals("image/gif", FileStorageService.sniffContentType(bytes('G', 'I', 'F', '8', '9', 'a')));
+        assertEquals("image/webp", FileStorageService.sniffContentType(
+                bytes('R', 'I', 'F', 'F', 0x24, 0, 0, 0, 'W', 'E', 'B', 'P')));
+        assertEquals("application/pdf", FileStorageService.sniffContentType(bytes('%', 'P', 'D', 'F', '-', '1', '.', '7')));
+    }
+
+    @Test
+    void rejectsUnknownAndTruncatedHeaders() {
+        assertNull(FileStorageService.sniffContentType(new byte[0]));
+        assertNull(FileStorageService.sniffContentType(bytes(0xFF, 0xD8)));
+        assertNull(FileStorageService.sniffContentType(bytes('G', 'I', 'F', '8')));
+        assertNull(FileStorageService.sniffContentType(bytes('G', 'I', 'F', '8', '8', 'a')));
+        // RIFF containers other than WebP, e.g. WAV
+        assertNull(FileStorageService.sniffContentType(bytes('R', 'I', 'F', 'F', 0x24, 0, 0, 0, 'W', 'A', 'V', 'E')));
+        assertNull(FileStorageService.sniffContentType("<svg xmlns=".getBytes()));
+        assertNull(FileStorageService.sniffContentType("MZ executable".getBytes()));
+    }
+
+    @Test
+    void storesContentLargerThanTheCopyBufferIntact() throws IOException {
+        byte[] content = png(MAX_SIZE);
+
+        String url = fileStorageService.uploadImage(new ByteArrayInputStream(content), content.length);
+
+        assertTrue(url.matches("/uploads/images/[0-9a-f-]{36}\\.png"), url);
+        assertArrayEquals(content, Files.readAllBytes(uploadDir.resolve(fileStorageService.toKey(url))));
+        verify(fileRegistry).register(url);
+        assertNoStagingFilesLeft();
+    }
+
+    @Test
+    void abortsAsSoonAsTheLimitIsPassed() throws IOException {
+        // Unknown length: only the copy can notice the file is too large
+        CountingInputStream content = new CountingInputStream(png(MAX_SIZE * 10));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> fileStorageService.uploadImage(content, -1));
+
+        assertTrue(error.getMessage().contains("exceeds maximum"));
+        assertTrue(content.read < MAX_SIZE + 2 * 8192, "read " + content.read + " bytes");
+        verify(blobStore, never()).put(anyString(), any(), anyString());
+        assertNoStagingFilesLeft();
+    }
+
+    @Test
+    void rejectsATooLargeDeclaredLengthBeforeReading() {
+        InputStream unread = mock(InputStream.class);
+
+        assertThrows(IllegalArgumentException.class, () -> fileStorageService.uploadImage(unread, MAX_SIZE + 1));
+        verifyNoInteractions(unread);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"%PDF-1.7 not an image", "<html><body>hi</body></html>"})
+    void rejectsDisallowedContentBeforeWritingAnything(String content) throws IOException {
+        assertThrows(IllegalArgumentException.class,
+                () -> fileStorageService.uploadImage(new ByteArrayInputStream(content.getBytes()), content.length()));
+
+        verify(blobStore, never()).createStagingFile();
+    }
+
+    @Test
+    void rejectsEmptyUploads() {
+        assertThrows(IllegalArgumentException.class,
+                () -> fileStorageService.uploadFlyer(new ByteArrayInputStream(new byte[0]), 0));
+    }
+
+    @Test
+    void namesDeduplicatedUploadsAfterTheDigestOfTheWholeContent() throws Exception {
+        ReflectionTestUtils.setField(fileStorageService, "dedupEnabled", true);
+        byte[] content = png(MAX_SIZE);
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+
+        String first = fileStorageService.uploadImage(new ByteArrayInputStream(content), content.length);
+        String second = fileStorageService.uploadImage(new ByteArrayInputStream(content), content.length);
+
+        assertEquals("/uploads/images/" + hash + ".png", first);
+        assertEquals(first, second);
+        verify(fileRegistry, times(2)).registerContent(first, hash);
+        verify(blobStore, times(1)).put(eq("images/" + hash + ".png"), any(), eq("image/png"));
+        assertNoStagingFilesLeft();
+    }
+
+    private void assertNoStagingFilesLeft() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(0, files.filter(file -> file.getFileName().toString().endsWith(".tmp")).count());
+        }
+    }
+
+    private static byte[] png(long size) {
+        byte[] content = Arrays.copyOf(PNG, (int) size);
+        for (int i = PNG.length; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private static class CountingInputStream extends ByteArrayInputStream {
+
+        private long read;
+
+        CountingInputStream(byte[] content) {
+            super(content);
+        }
+
+        @Override
+        public synchronized int read(byte[] buffer, int offset, int length) {
+            int count = super.read(buffer, offset, length);
+            read += Math.max(count, 0);
+            return count;
+        }
+    }
+}
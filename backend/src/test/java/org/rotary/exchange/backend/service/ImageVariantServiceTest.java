@@ -0,0 +1,134 @@
+package org.rotary.exchange.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rotary.exchange.backend.exception.ServiceBusyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Variant generation against a local blob store in a temporary directory.
+ */
+class ImageVariantServiceTest {
+
+    private static final String FILENAME = "0f8fad5b-d9cb-469f-a165-70867728950e.png";
+    private static final String ORIGINAL = "images/" + FILENAME;
+    private static final String CARD = "variants/card/0f8fad5b-d9cb-469f-a165-70867728950e.jpg";
+
+    @TempDir
+    Path root;
+
+    private Path uploadDir;
+
+    private BlobStore blobStore;
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        uploadDir = root.resolve("uploads");
+        LocalBlobStore localBlobStore = new LocalBlobStore();
+        ReflectionTestUtils.setField(localBlobStore, "uploadDir", uploadDir.toString());
+        localBlobStore.init();
+        blobStore = spy(localBlobStore);
+        fileStorageService = new FileStorageService(mock(FileRegistryService.class), blobStore);
+    }
+
+    @Test
+    void generatesTheVariantOnceAndServesItFromStorage() throws Exception {
+        storeOriginal(1000, 500);
+        ImageVariantService service = service(2, 40_000_000);
+
+        assertEquals(Optional.of(CARD), service.resolve(ImageVariantService.Variant.CARD, FILENAME));
+        assertEquals(Optional.of(CARD), service.resolve(ImageVariantService.Variant.CARD, FILENAME));
+
+        BufferedImage card;
+        try (InputStream in = blobStore.get(CARD)) {
+            card = ImageIO.read(in);
+        }
+        assertEquals(640, card.getWidth());
+        assertEquals(320, card.getHeight());
+        verify(blobStore, times(1)).put(eq(CARD), any(), eq("image/jpeg"));
+    }
+
+    @Test
+    void narrowImagesAreServedAsTheyAre() throws Exception {
+        storeOriginal(300, 200);
+
+        assertEquals(Optional.of(ORIGINAL), service(2, 40_000_000).resolve(ImageVariantService.Variant.CARD, FILENAME));
+        verify(blobStore, never()).put(anyString(), any(), anyString());
+    }
+
+    @Test
+    void imagesAboveThePixelLimitAreNotDecoded() throws Exception {
+        storeOriginal(2000, 1000);
+
+        assertEquals(Optional.of(ORIGINAL), service(2, 1_000_000).resolve(ImageVariantService.Variant.CARD, FILENAME));
+        verify(blobStore, never()).put(anyString(), any(), anyString());
+    }
+
+    @Test
+    void missingOriginalsAreNotFound() throws Exception {
+        assertEquals(Optional.empty(), service(2, 40_000_000).resolve(ImageVariantService.Variant.CARD, FILENAME));
+    }
+
+    @Test
+    void concurrentFirstRequestsShareOneGeneration() throws Exception {
+        storeOriginal(1600, 1200);
+        ImageVariantService service = service(4, 40_000_000);
+
+        int requests = 8;
+        CyclicBarrier start = new CyclicBarrier(requests);
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<Optional<String>>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.resolve(ImageVariantService.Variant.CARD, FILENAME);
+                }));
+            }
+            for (Future<Optional<String>> result : results) {
+                assertEquals(Optional.of(CARD), result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(blobStore, times(1)).put(eq(CARD), any(), anyString());
+    }
+
+    @Test
+    void rejectsGenerationWhenAllDecodeSlotsAreBusy() throws Exception {
+        storeOriginal(1000, 500);
+        ImageVariantService service = new ImageVariantService(fileStorageService, blobStore, 0, 50, 40_000_000);
+
+        assertThrows(ServiceBusyException.class, () -> service.resolve(ImageVariantService.Variant.CARD, FILENAME));
+        // The next request tries again instead of waiting for the failed generation
+        assertThrows(ServiceBusyException.class, () -> service.resolve(ImageVariantService.Variant.CARD, FILENAME));
+    }
+
+    private ImageVariantService service(int concurrency, long maxPixels) {
+        return new ImageVariantService(fileStorageService, blobStore, concurrency, 5000, maxPixels);
+    }
+
+    private void storeOriginal(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ImageIO.write(image, "png", uploadDir.resolve(ORIGINAL).toFile());
+    }
+}
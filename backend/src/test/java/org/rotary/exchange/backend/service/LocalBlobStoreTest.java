@@ -0,0 +1,56 @@
+package org.rotary.exchange.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void stagesUploadsOutsideTheServedDirectory() throws IOException {
+        LocalBlobStore store = store(root.resolve("uploads"), "");
+
+        Path staging = store.createStagingFile();
+        assertFalse(staging.startsWith(root.resolve("uploads")));
+        assertEquals(root.resolve("uploads-staging"), staging.getParent());
+
+        Files.writeString(staging, "content");
+        store.put("images/a.png", staging, "image/png");
+
+        assertFalse(Files.exists(staging));
+        try (InputStream in = store.get("images/a.png")) {
+            assertEquals("content", new String(in.readAllBytes()));
+        }
+    }
+
+    @Test
+    void usesTheConfiguredStagingDirectory() throws IOException {
+        LocalBlobStore store = store(root.resolve("uploads"), root.resolve("tmp").toString());
+
+        assertEquals(root.resolve("tmp"), store.createStagingFile().getParent());
+    }
+
+    @Test
+    void refusesAStagingDirectoryInsideTheUploadDirectory() {
+        assertThrows(IllegalStateException.class,
+                () -> store(root.resolve("uploads"), root.resolve("uploads/tmp").toString()));
+    }
+
+    private static LocalBlobStore store(Path uploadDir, String stagingDir) {
+        LocalBlobStore store = new LocalBlobStore();
+        ReflectionTestUtils.setField(store, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(store, "stagingDir", stagingDir);
+        store.init();
+        return store;
+    }
+}
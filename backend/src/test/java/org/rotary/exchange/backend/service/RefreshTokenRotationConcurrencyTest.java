@@ -0,0 +1,81 @@
+package org.rotary.exchange.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.exception.TokenRefreshException;
+import org.rotary.exchange.backend.model.Coordinator;
+import org.rotary.exchange.backend.repository.CoordinatorRepository;
+import org.rotary.exchange.backend.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two tabs refreshing with the same token at the same moment: each request runs in its own
+ * committed transaction, like in production.
+ */
+@DataJpaTest
+@Import(RefreshTokenService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenRotationConcurrencyTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private CoordinatorRepository coordinatorRepository;
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        coordinatorRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRefreshesWithSameTokenRotateOnce() throws Exception {
+        Coordinator coordinator = coordinatorRepository.save(new Coordinator("coordinator@rotary.org", "hash"));
+        String token = refreshTokenService.createRefreshToken(coordinator.getId()).getToken();
+
+        int tabs = 2;
+        CyclicBarrier start = new CyclicBarrier(tabs);
+        ExecutorService executor = Executors.newFixedThreadPool(tabs);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < tabs; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return refreshTokenService.rotateRefreshToken(token).getToken();
+                    } catch (TokenRefreshException e) {
+                        return null;
+                    }
+                }));
+            }
+
+            List<String> issued = new ArrayList<>();
+            for (Future<String> result : results) {
+                String next = result.get(10, TimeUnit.SECONDS);
+                if (next != null) {
+                    issued.add(next);
+                }
+            }
+
+            // Exactly one tab got a new token, the other was told to retry; the session survives
+            assertEquals(1, issued.size());
+            assertNotNull(refreshTokenService.rotateRefreshToken(issued.get(0)).getToken());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.rotary.exchange.backend.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.rotary.exchange.backend.exception.TokenRefreshException;
+import org.rotary.exchange.backend.model.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(RefreshTokenService.class)
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    private Coordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        Country country = new Country(null, "Poland", true);
+        em.persist(country);
+
+        District district = new District();
+        district.setCode("2231");
+        district.setCountry(country);
+        em.persist(district);
+
+        Role role = new Role(RoleName.ROLE_COORDINATOR);
+        em.persist(role);
+
+        coordinator = new Coordinator("coordinator@rotary.org", "hash");
+        coordinator.setDistrict(district);
+        coordinator.getRoles().add(role);
+        em.persist(coordinator);
+    }
+
+    @Test
+    void refreshRotatesWithOneReadAndOneWrite() {
+        RefreshToken created = refreshTokenService.createRefreshToken(coordinator.getId());
+        String token = created.getToken();
+        em.flush();
+        em.clear();
+
+        RefreshToken stored = em.find(RefreshToken.class, created.getId());
+        assertNull(stored.getToken());
+        assertTrue(Arrays.equals(RefreshTokenService.hash(token), stored.getTokenHash()));
+        assertEquals(32, stored.getTokenHash().length);
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        RefreshToken rotated = refreshTokenService.rotateRefreshToken(token);
+        Coordinator loaded = rotated.getCoordinator();
+
+        // Token, coordinator, district, country and roles come from one fetch-joined select,
+        // the rotation is one conditional update
+        assertEquals("coordinator@rotary.org", loaded.getEmail());
+        assertEquals("2231", loaded.getDistrict().getCode());
+        assertEquals(1, loaded.getRoles().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        String next = rotated.getToken();
+        assertNotEquals(token, next);
+        em.clear();
+        assertNotNull(refreshTokenService.rotateRefreshToken(next).getToken());
+    }
+
+    @Test
+    void replayWithinGracePeriodKeepsSession() {
+        String token = refreshTokenService.createRefreshToken(coordinator.getId()).getToken();
+        String next = refreshTokenService.rotateRefreshToken(token).getToken();
+        em.clear();
+
+        TokenRefreshException e = assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotateRefreshToken(token));
+        assertTrue(e.getMessage().contains("already used"));
+        em.clear();
+        assertNotNull(refreshTokenService.rotateRefreshToken(next).getToken());
+    }
+
+    @Test
+    void replayAfterGracePeriodRevokesSession() {
+        String token = refreshTokenService.createRefreshToken(coordinator.getId()).getToken();
+        String next = refreshTokenService.rotateRefreshToken(token).getToken();
+        em.createQuery("UPDATE RefreshToken rt SET rt.rotatedAt = :longAgo")
+                .setParameter("longAgo", Instant.now().minusSeconds(3600))
+                .executeUpdate();
+        em.clear();
+
+        TokenRefreshException e = assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotateRefreshToken(token));
+        assertTrue(e.getMessage().contains("reuse detected"));
+        em.clear();
+        // The legitimate holder's current token is gone too
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotateRefreshToken(next));
+    }
+
+    @Test
+    void revokedTokenIsRejected() {
+        String token = refreshTokenService.createRefreshToken(coordinator.getId()).getToken();
+        refreshTokenService.revokeToken(token);
+        em.clear();
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotateRefreshToken(token));
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotateRefreshToken("unknown"));
+    }
+}
@@ -0,0 +1,116 @@
+package org.rotary.exchange.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The S3 driver against a real S3 API, served by MinIO.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class S3BlobStoreTest {
+
+    private static final String BUCKET = "uploads";
+    private static final String KEY = "images/a.png";
+    private static final String CONTENT = "image content";
+
+    @Container
+    static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-10-13T13-34-11Z");
+
+    private S3BlobStore blobStore;
+
+    @BeforeAll
+    static void createBucket() {
+        try (S3Client client = S3Client.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create(MINIO.getS3URL()))
+                .forcePathStyle(true)
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(MINIO.getUserName(), MINIO.getPassword())))
+                .build()) {
+            client.createBucket(request -> request.bucket(BUCKET));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new S3BlobStore(BUCKET, "us-east-1", MINIO.getS3URL(), true,
+                MINIO.getUserName(), MINIO.getPassword());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        blobStore.delete(KEY);
+        blobStore.close();
+    }
+
+    @Test
+    void putStoresTheStagedFileAndItsMetadata() throws IOException {
+        put(KEY, CONTENT);
+
+        assertTrue(blobStore.exists(KEY));
+        assertEquals(CONTENT.length(), blobStore.stat(KEY).orElseThrow().size());
+        try (InputStream in = blobStore.get(KEY)) {
+            assertEquals(CONTENT, new String(in.readAllBytes()));
+        }
+    }
+
+    @Test
+    void missingKeysAreReportedAsMissing() throws IOException {
+        assertFalse(blobStore.exists(KEY));
+        assertTrue(blobStore.stat(KEY).isEmpty());
+        assertThrows(NoSuchFileException.class, () -> blobStore.get(KEY));
+        assertFalse(blobStore.delete(KEY));
+    }
+
+    @Test
+    void deleteRemovesTheObject() throws IOException {
+        put(KEY, CONTENT);
+
+        assertTrue(blobStore.delete(KEY));
+        assertFalse(blobStore.exists(KEY));
+    }
+
+    @Test
+    void presignedUrlsDownloadWithoutCredentials() throws Exception {
+        put(KEY, CONTENT);
+
+        URI url = blobStore.presignedGet(KEY, Duration.ofMinutes(5)).orElseThrow();
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(url).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(CONTENT, response.body());
+    }
+
+    private void put(String key, String content) throws IOException {
+        Path staging = blobStore.createStagingFile();
+        try {
+            Files.writeString(staging, content);
+            blobStore.put(key, staging, "image/png");
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+    }
+}